@@ -0,0 +1,182 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.Collections;
+import ru.spbau.mit.java.paradov.Function1;
+import ru.spbau.mit.java.paradov.Function2;
+import ru.spbau.mit.java.paradov.IntFunction1;
+import ru.spbau.mit.java.paradov.IntIntFunction2;
+import ru.spbau.mit.java.paradov.IntPredicate;
+import ru.spbau.mit.java.paradov.Predicate;
+import ru.spbau.mit.java.paradov.Seq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares chains of eager methods of Collections, which build a list on every stage,
+ * with the same chains on lazy Seq. Mapping function returns precomputed strings,
+ * so the only allocations are made by pipelines; run with -prof gc to see them per operation.
+ * Folds compare sequential foldl and foldr with parallelReduce on a cheap associative function.
+ * Filters with conjunction of many clauses show cost of long chains of and().
+ * Memoized mapping shows the cost of cache lookups on a function with 100 distinct arguments.
+ * Numeric pipelines compare boxed Function1/Predicate over List of Integer with int specializations over int[].
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CollectionsBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Integer> indices;
+
+    private Function1<Integer, String> toWord;
+
+    private Predicate<String> isEven;
+
+    private Predicate<String> isShort;
+
+    private Function2<Integer, Integer, Integer> max;
+
+    private Predicate<Integer> conjunction;
+
+    private List<Integer> repeatedKeys;
+
+    private Function1<Integer, Integer> slowHash;
+
+    private Function1<Integer, Integer> memoizedSlowHash;
+
+    private Function1<Integer, Integer> threadSafeMemoizedSlowHash;
+
+    private int[] numbers;
+
+    private Function1<Integer, Integer> boxedSquare;
+
+    private Predicate<Integer> boxedIsOdd;
+
+    private Function2<Integer, Integer, Integer> boxedSum;
+
+    private IntFunction1 square;
+
+    private IntPredicate isOdd;
+
+    private IntIntFunction2 sum;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        indices = new ArrayList<>();
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            indices.add(i);
+            words[i] = Integer.toString(i);
+        }
+        toWord = arg -> words[arg];
+        isEven = arg -> (arg.charAt(arg.length() - 1) & 1) == 0;
+        isShort = arg -> arg.length() < 6;
+        max = (arg1, arg2) -> arg1 >= arg2 ? arg1 : arg2;
+
+        conjunction = arg -> arg >= 0;
+        for (int i = 1; i <= 200; i++) {
+            int divisor = i * 7919;
+            Predicate<Integer> isNotDivisible = arg -> arg % divisor != 1;
+            conjunction = conjunction.and(isNotDivisible);
+        }
+
+        repeatedKeys = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            repeatedKeys.add(i % 100);
+        }
+        slowHash = arg -> {
+            int hash = arg;
+            for (int i = 0; i < 1000; i++) {
+                hash = hash * 31 + i;
+            }
+            return hash;
+        };
+        memoizedSlowHash = slowHash.memoize(128);
+        threadSafeMemoizedSlowHash = slowHash.memoize(128, true);
+
+        numbers = new int[size];
+        for (int i = 0; i < size; i++) {
+            numbers[i] = i;
+        }
+        boxedSquare = arg -> arg * arg;
+        boxedIsOdd = arg -> (arg & 1) == 1;
+        boxedSum = (arg1, arg2) -> arg1 + arg2;
+        square = arg -> arg * arg;
+        isOdd = arg -> (arg & 1) == 1;
+        sum = (arg1, arg2) -> arg1 + arg2;
+    }
+
+    @Benchmark
+    public void mapFilterTakeWhileCollections(Blackhole blackhole) {
+        for (String word : Collections.takeWhile(isShort, Collections.filter(isEven, Collections.map(toWord, indices)))) {
+            blackhole.consume(word);
+        }
+    }
+
+    @Benchmark
+    public void mapFilterTakeWhileSeq(Blackhole blackhole) {
+        for (String word : Seq.of(indices).map(toWord).filter(isEven).takeWhile(isShort)) {
+            blackhole.consume(word);
+        }
+    }
+
+    @Benchmark
+    public String firstCollections() {
+        return Collections.takeWhile(isShort, Collections.filter(isEven, Collections.map(toWord, indices))).get(0);
+    }
+
+    @Benchmark
+    public String firstSeq() {
+        return Seq.of(indices).map(toWord).filter(isEven).takeWhile(isShort).first();
+    }
+
+    @Benchmark
+    public Integer foldl() {
+        return Collections.foldl(max, 0, indices);
+    }
+
+    @Benchmark
+    public Integer foldr() {
+        return Collections.foldr(max, 0, indices);
+    }
+
+    @Benchmark
+    public Integer parallelReduce() {
+        return Collections.parallelReduce(max, 0, indices);
+    }
+
+    @Benchmark
+    public Integer numericPipelineBoxed() {
+        return Collections.foldl(boxedSum, 0, Collections.filter(boxedIsOdd, Collections.map(boxedSquare, indices)));
+    }
+
+    @Benchmark
+    public int numericPipelineInt() {
+        return Collections.foldl(sum, 0, Collections.filter(isOdd, Collections.map(square, numbers)));
+    }
+
+    @Benchmark
+    public List<Integer> filterWithLongConjunction() {
+        return Collections.filter(conjunction, indices);
+    }
+
+    @Benchmark
+    public List<Integer> mapSlowHash() {
+        return Collections.map(slowHash, repeatedKeys);
+    }
+
+    @Benchmark
+    public List<Integer> mapMemoizedSlowHash() {
+        return Collections.map(memoizedSlowHash, repeatedKeys);
+    }
+
+    @Benchmark
+    public List<Integer> mapThreadSafeMemoizedSlowHash() {
+        return Collections.map(threadSafeMemoizedSlowHash, repeatedKeys);
+    }
+}
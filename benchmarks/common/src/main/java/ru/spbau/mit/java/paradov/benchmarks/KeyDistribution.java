@@ -0,0 +1,80 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Sets of string keys that benchmarks are run on. Every set is generated
+ * from a fixed seed, so runs of different versions see exactly the same keys.
+ */
+public enum KeyDistribution {
+    /** Distinct keys in ascending lexicographic order. */
+    SORTED {
+        @Override
+        public String[] generate(int n) {
+            String[] keys = new String[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = String.format("key%010d", i);
+            }
+            return keys;
+        }
+    },
+
+    /** Distinct random alphanumeric keys of length 10 in random order. */
+    RANDOM {
+        @Override
+        public String[] generate(int n) {
+            Random random = new Random(SEED);
+            Set<String> seen = new HashSet<>();
+            String[] keys = new String[n];
+            char[] buffer = new char[10];
+            for (int i = 0; i < n; ) {
+                for (int j = 0; j < buffer.length; j++) {
+                    buffer[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                }
+                String key = new String(buffer);
+                if (seen.add(key)) {
+                    keys[i++] = key;
+                }
+            }
+            return keys;
+        }
+    },
+
+    /**
+     * Distinct keys with equal hashCode() in random order: every key is a concatenation
+     * of "Aa" and "BB" blocks, and these two strings have the same hash code.
+     */
+    COLLIDING {
+        @Override
+        public String[] generate(int n) {
+            int blocks = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(n - 1, 1)));
+            List<String> keys = new ArrayList<>(n);
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                builder.setLength(0);
+                for (int bit = 0; bit < blocks; bit++) {
+                    builder.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+                }
+                keys.add(builder.toString());
+            }
+            Collections.shuffle(keys, new Random(SEED));
+            return keys.toArray(new String[n]);
+        }
+    };
+
+    private static final long SEED = 20171001L;
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    /**
+     * Generates n distinct keys of this distribution.
+     * @param n number of keys
+     * @return array of keys
+     */
+    public abstract String[] generate(int n);
+}
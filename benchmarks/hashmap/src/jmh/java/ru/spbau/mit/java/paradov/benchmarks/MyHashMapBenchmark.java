@@ -0,0 +1,109 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.MyHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares MyHashMap with java.util.HashMap.
+ * Every benchmark method processes all keys once, so scores are per whole key set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MyHashMapBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"SORTED", "RANDOM", "COLLIDING"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    private MyHashMap<String, String> myHashMap;
+
+    private HashMap<String, String> hashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.generate(size);
+        myHashMap = new MyHashMap<>();
+        hashMap = new HashMap<>();
+        for (String key : keys) {
+            myHashMap.put(key, key);
+            hashMap.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> putMyHashMap() {
+        return putAll(new MyHashMap<>());
+    }
+
+    @Benchmark
+    public Map<String, String> putHashMap() {
+        return putAll(new HashMap<>());
+    }
+
+    @Benchmark
+    public void getMyHashMap(Blackhole blackhole) {
+        getAll(myHashMap, blackhole);
+    }
+
+    @Benchmark
+    public void getHashMap(Blackhole blackhole) {
+        getAll(hashMap, blackhole);
+    }
+
+    /** Removes every key and puts it back, so the map is the same after each call. */
+    @Benchmark
+    public void removeMyHashMap(Blackhole blackhole) {
+        removeAll(myHashMap, blackhole);
+    }
+
+    /** Removes every key and puts it back, so the map is the same after each call. */
+    @Benchmark
+    public void removeHashMap(Blackhole blackhole) {
+        removeAll(hashMap, blackhole);
+    }
+
+    @Benchmark
+    public void iterateMyHashMap(Blackhole blackhole) {
+        iterate(myHashMap, blackhole);
+    }
+
+    @Benchmark
+    public void iterateHashMap(Blackhole blackhole) {
+        iterate(hashMap, blackhole);
+    }
+
+    private Map<String, String> putAll(Map<String, String> map) {
+        for (String key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    private void getAll(Map<String, String> map, Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(map.get(key));
+        }
+    }
+
+    private void removeAll(Map<String, String> map, Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(map.remove(key));
+            map.put(key, key);
+        }
+    }
+
+    private static void iterate(Map<String, String> map, Blackhole blackhole) {
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            blackhole.consume(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.spbau.mit.java.paradov.ConcurrentHashTable;
+import ru.spbau.mit.java.paradov.HashTable;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of hw1 ConcurrentHashTable under contention, compared with HashTable behind one lock.
+ * Every call is one operation from a mix of 80% get, 15% put and 5% remove on random keys,
+ * half of which are in the table at start. The same operation is run by 1, 4, 16 and 64 threads
+ * (one benchmark method per thread count), and number of stripes is a separate parameter,
+ * so a row of results shows how one table scales with threads, and a column shows what
+ * more stripes buy at a fixed number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ConcurrentHashTableBenchmark {
+    /** Number of different keys. */
+    private static final int NUM_OF_KEYS = 1 << 16;
+
+    @Param({"CONCURRENT", "SYNCHRONIZED"})
+    private String implementation;
+
+    /** Number of stripes of the concurrent table; ignored by the synchronized one. */
+    @Param({"1", "4", "16", "64"})
+    private int stripes;
+
+    private String[] keys;
+
+    private ConcurrentHashTable concurrent;
+
+    private HashTable plain;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[NUM_OF_KEYS];
+        for (int i = 0; i < NUM_OF_KEYS; i++) {
+            keys[i] = "key" + i;
+        }
+
+        concurrent = new ConcurrentHashTable(stripes);
+        plain = new HashTable();
+        for (int i = 0; i < NUM_OF_KEYS; i += 2) {
+            concurrent.put(keys[i], keys[i]);
+            plain.put(keys[i], keys[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String threads01() {
+        return mixedOperation();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String threads04() {
+        return mixedOperation();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String threads16() {
+        return mixedOperation();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String threads64() {
+        return mixedOperation();
+    }
+
+    private String mixedOperation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String key = keys[random.nextInt(NUM_OF_KEYS)];
+        int op = random.nextInt(100);
+        if (implementation.equals("CONCURRENT")) {
+            if (op < 80) {
+                return concurrent.get(key);
+            } else if (op < 95) {
+                return concurrent.put(key, key);
+            }
+            return concurrent.remove(key);
+        }
+
+        synchronized (plain) {
+            if (op < 80) {
+                return plain.get(key);
+            } else if (op < 95) {
+                return plain.put(key, key);
+            }
+            return plain.remove(key);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.HashTable;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares hw1 HashTable with java.util.HashMap.
+ * Every benchmark method processes all keys once, so scores are per whole key set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HashTableBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"SORTED", "RANDOM", "COLLIDING"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    private HashTable hashTable;
+
+    private HashMap<String, String> hashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.generate(size);
+        hashTable = new HashTable();
+        hashMap = new HashMap<>();
+        for (String key : keys) {
+            hashTable.put(key, key);
+            hashMap.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public HashTable putHashTable() {
+        HashTable table = new HashTable();
+        for (String key : keys) {
+            table.put(key, key);
+        }
+        return table;
+    }
+
+    @Benchmark
+    public HashMap<String, String> putHashMap() {
+        HashMap<String, String> map = new HashMap<>();
+        for (String key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void getHashTable(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(hashTable.get(key));
+        }
+    }
+
+    @Benchmark
+    public void getHashMap(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(hashMap.get(key));
+        }
+    }
+
+    /** Removes every key and puts it back, so the table is the same after each call. */
+    @Benchmark
+    public void removeHashTable(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(hashTable.remove(key));
+            hashTable.put(key, key);
+        }
+    }
+
+    /** Removes every key and puts it back, so the map is the same after each call. */
+    @Benchmark
+    public void removeHashMap(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(hashMap.remove(key));
+            hashMap.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public void iterateHashTable(Blackhole blackhole) {
+        hashTable.forEach((key, value) -> blackhole.consume(value));
+    }
+
+    @Benchmark
+    public void iterateHashMap(Blackhole blackhole) {
+        hashMap.forEach((key, value) -> blackhole.consume(value));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.OpenHashTable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks hw1 OpenHashTable; compare with HashMap scores of HashTableBenchmark.
+ * Colliding keys are not measured: with equal hash codes linear probing is quadratic,
+ * and large key sets would take minutes per operation.
+ * Every benchmark method processes all keys once, so scores are per whole key set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class OpenHashTableBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"SORTED", "RANDOM"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    private OpenHashTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.generate(size);
+        table = new OpenHashTable();
+        for (String key : keys) {
+            table.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public OpenHashTable putOpenHashTable() {
+        OpenHashTable result = new OpenHashTable();
+        for (String key : keys) {
+            result.put(key, key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void getOpenHashTable(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(table.get(key));
+        }
+    }
+
+    /** Removes every key and puts it back, so the table is the same after each call. */
+    @Benchmark
+    public void removeOpenHashTable(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(table.remove(key));
+            table.put(key, key);
+        }
+    }
+}
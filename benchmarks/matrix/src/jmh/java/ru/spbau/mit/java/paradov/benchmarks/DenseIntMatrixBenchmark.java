@@ -0,0 +1,99 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.spbau.mit.java.paradov.DenseIntMatrix;
+import ru.spbau.mit.java.paradov.MatrixOperations;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares kernels of DenseIntMatrix with the same operations on jagged int[][] matrices.
+ * Matrices to sort are restored from a copy before every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class DenseIntMatrixBenchmark {
+    @Param({"512", "2048"})
+    private int size;
+
+    private int[][] jagged;
+
+    private int[][] jaggedToSort;
+
+    private DenseIntMatrix dense;
+
+    private DenseIntMatrix denseToSort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(20171001L);
+        jagged = new int[size][size];
+        for (int[] row : jagged) {
+            for (int j = 0; j < size; j++) {
+                row[j] = random.nextInt(1000);
+            }
+        }
+        jaggedToSort = new int[size][size];
+        dense = DenseIntMatrix.fromArray(jagged);
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreMatrices() {
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(jagged[i], 0, jaggedToSort[i], 0, size);
+        }
+        denseToSort = DenseIntMatrix.fromArray(jagged);
+    }
+
+    @Benchmark
+    public int[][] transposeJagged() {
+        int[][] result = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                result[j][i] = jagged[i][j];
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public DenseIntMatrix transposeDense() {
+        return dense.transpose();
+    }
+
+    @Benchmark
+    public int[][] sortColumnsJagged() {
+        MatrixOperations.sortColumns(jaggedToSort);
+        return jaggedToSort;
+    }
+
+    @Benchmark
+    public DenseIntMatrix sortColumnsDense() {
+        denseToSort.sortColumns();
+        return denseToSort;
+    }
+
+    /** Plain i-k-j multiplication of jagged matrices on one thread. */
+    @Benchmark
+    public int[][] multiplyJagged() {
+        int[][] result = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < size; k++) {
+                int a = jagged[i][k];
+                int[] row = jagged[k];
+                for (int j = 0; j < size; j++) {
+                    result[i][j] += a * row[j];
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public DenseIntMatrix multiplyDense() {
+        return dense.multiply(dense);
+    }
+}
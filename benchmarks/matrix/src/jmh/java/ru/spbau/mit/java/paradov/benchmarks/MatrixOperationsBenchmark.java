@@ -0,0 +1,90 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.MatrixOperations;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures spiral output and column sort of MatrixOperations on n x n matrices.
+ * The matrix to sort is restored from a copy before every call, so every call sorts the same matrix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class MatrixOperationsBenchmark {
+    @Param({"1001", "10001"})
+    private int size;
+
+    private int[][] original;
+
+    private int[][] matrix;
+
+    private int[] spiral;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(20171001L);
+        original = new int[size][size];
+        matrix = new int[size][size];
+        for (int[] row : original) {
+            for (int j = 0; j < size; j++) {
+                row[j] = random.nextInt();
+            }
+        }
+        spiral = new int[size * size];
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreMatrix() {
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(original[i], 0, matrix[i], 0, size);
+        }
+    }
+
+    @Benchmark
+    public String spiralToString() {
+        return MatrixOperations.spiralOutput(original);
+    }
+
+    @Benchmark
+    public int[] spiralToArray() {
+        MatrixOperations.spiralOutput(original, spiral);
+        return spiral;
+    }
+
+    @Benchmark
+    public void spiralToConsumer(Blackhole blackhole) {
+        MatrixOperations.spiralOutput(original, blackhole::consume);
+    }
+
+    @Benchmark
+    public int[][] sortColumns() {
+        MatrixOperations.sortColumns(matrix);
+        return matrix;
+    }
+
+    /** Previous implementation of sortColumns: transpose, sort rows with boxing comparator, transpose back. */
+    @Benchmark
+    public int[][] sortColumnsByTransposing() {
+        transpose(matrix);
+        Arrays.sort(matrix, Comparator.comparingInt(o -> o[0]));
+        transpose(matrix);
+        return matrix;
+    }
+
+    private static void transpose(int[][] matrix) {
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = i + 1; j < matrix.length; j++) {
+                int tmp = matrix[i][j];
+                matrix[i][j] = matrix[j][i];
+                matrix[j][i] = tmp;
+            }
+        }
+    }
+}
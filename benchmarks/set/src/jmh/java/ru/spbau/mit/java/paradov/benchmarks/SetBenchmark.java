@@ -0,0 +1,164 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.PersistentSet;
+import ru.spbau.mit.java.paradov.Set;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares hw5.2 Set with java.util.TreeSet. Both are balanced trees, so SORTED keys,
+ * which used to turn unbalanced Set into a list, should cost the same as RANDOM ones.
+ * PersistentSet is measured too: its snapshot is the reference itself,
+ * while a snapshot of Set has to copy it.
+ * Every benchmark method processes all keys once, so scores are per whole key set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SetBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    @Param({"SORTED", "RANDOM", "COLLIDING"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    private Set<String> set;
+
+    private TreeSet<String> treeSet;
+
+    private PersistentSet<String> persistentSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.generate(size);
+        set = new Set<>();
+        treeSet = new TreeSet<>();
+        persistentSet = new PersistentSet<>();
+        for (String key : keys) {
+            set.add(key);
+            treeSet.add(key);
+            persistentSet = persistentSet.add(key);
+        }
+    }
+
+    @Benchmark
+    public Set<String> addSet() {
+        Set<String> result = new Set<>();
+        for (String key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TreeSet<String> addTreeSet() {
+        TreeSet<String> result = new TreeSet<>();
+        for (String key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void containsSet(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(set.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void containsTreeSet(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(treeSet.contains(key));
+        }
+    }
+
+    @Benchmark
+    public Set<String> addAndRemoveSet() {
+        Set<String> result = new Set<>();
+        for (String key : keys) {
+            result.add(key);
+        }
+        for (String key : keys) {
+            result.remove(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TreeSet<String> addAndRemoveTreeSet() {
+        TreeSet<String> result = new TreeSet<>();
+        for (String key : keys) {
+            result.add(key);
+        }
+        for (String key : keys) {
+            result.remove(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void iterateSet(Blackhole blackhole) {
+        for (String key : set) {
+            blackhole.consume(key);
+        }
+    }
+
+    @Benchmark
+    public void iterateTreeSet(Blackhole blackhole) {
+        for (String key : treeSet) {
+            blackhole.consume(key);
+        }
+    }
+
+    @Benchmark
+    public PersistentSet<String> addPersistentSet() {
+        PersistentSet<String> result = new PersistentSet<>();
+        for (String key : keys) {
+            result = result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void containsPersistentSet(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(persistentSet.contains(key));
+        }
+    }
+
+    /** Takes a snapshot of Set before each add, as a reader would need without persistence. */
+    @Benchmark
+    public Set<String> addWithSnapshotsSet(Blackhole blackhole) {
+        Set<String> result = new Set<>();
+        for (int i = 0; i < keys.length; i += keys.length / 100 + 1) {
+            Set<String> snapshot = new Set<>();
+            for (String key : result) {
+                snapshot.add(key);
+            }
+            blackhole.consume(snapshot);
+            for (int j = i; j < Math.min(i + keys.length / 100 + 1, keys.length); j++) {
+                result.add(keys[j]);
+            }
+        }
+        return result;
+    }
+
+    /** Same as addWithSnapshotsSet, but a snapshot of PersistentSet is just the current version. */
+    @Benchmark
+    public PersistentSet<String> addWithSnapshotsPersistentSet(Blackhole blackhole) {
+        PersistentSet<String> result = new PersistentSet<>();
+        for (int i = 0; i < keys.length; i += keys.length / 100 + 1) {
+            blackhole.consume(result);
+            for (int j = i; j < Math.min(i + keys.length / 100 + 1, keys.length); j++) {
+                result = result.add(keys[j]);
+            }
+        }
+        return result;
+    }
+}
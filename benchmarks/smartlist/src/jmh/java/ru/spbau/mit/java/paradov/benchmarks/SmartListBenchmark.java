@@ -0,0 +1,110 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.SmartList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares SmartList with java.util.ArrayList. Sizes cover every storage mode of SmartList:
+ * single object, small array and ArrayList.
+ * Every benchmark method processes all elements once, so scores are per whole list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SmartListBenchmark {
+    @Param({"1", "5", "100", "100000"})
+    private int size;
+
+    @Param({"RANDOM"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    private SmartList<String> smartList;
+
+    private ArrayList<String> arrayList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.generate(size);
+        smartList = new SmartList<>();
+        arrayList = new ArrayList<>();
+        for (String key : keys) {
+            smartList.add(key);
+            arrayList.add(key);
+        }
+    }
+
+    @Benchmark
+    public List<String> addSmartList() {
+        return addAll(new SmartList<>());
+    }
+
+    @Benchmark
+    public List<String> addArrayList() {
+        return addAll(new ArrayList<>());
+    }
+
+    @Benchmark
+    public void getSmartList(Blackhole blackhole) {
+        getAll(smartList, blackhole);
+    }
+
+    @Benchmark
+    public void getArrayList(Blackhole blackhole) {
+        getAll(arrayList, blackhole);
+    }
+
+    /** Removes elements from the end until the list is empty. */
+    @Benchmark
+    public List<String> removeSmartList() {
+        return removeAll(new SmartList<>(smartList));
+    }
+
+    /** Removes elements from the end until the list is empty. */
+    @Benchmark
+    public List<String> removeArrayList() {
+        return removeAll(new ArrayList<>(arrayList));
+    }
+
+    @Benchmark
+    public void iterateSmartList(Blackhole blackhole) {
+        iterate(smartList, blackhole);
+    }
+
+    @Benchmark
+    public void iterateArrayList(Blackhole blackhole) {
+        iterate(arrayList, blackhole);
+    }
+
+    private List<String> addAll(List<String> list) {
+        for (String key : keys) {
+            list.add(key);
+        }
+        return list;
+    }
+
+    private static void getAll(List<String> list, Blackhole blackhole) {
+        for (int i = 0; i < list.size(); i++) {
+            blackhole.consume(list.get(i));
+        }
+    }
+
+    private static List<String> removeAll(List<String> list) {
+        while (!list.isEmpty()) {
+            list.remove(list.size() - 1);
+        }
+        return list;
+    }
+
+    private static void iterate(List<String> list, Blackhole blackhole) {
+        for (String key : list) {
+            blackhole.consume(key);
+        }
+    }
+}
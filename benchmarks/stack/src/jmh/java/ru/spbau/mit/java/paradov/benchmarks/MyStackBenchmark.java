@@ -0,0 +1,66 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.MyStack;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares MyStack with java.util.ArrayDeque used as a stack.
+ * Every benchmark method processes all elements once, so scores are per whole stack.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MyStackBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param({"RANDOM"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.generate(size);
+    }
+
+    @Benchmark
+    public MyStack<String> pushMyStack() {
+        MyStack<String> stack = new MyStack<>();
+        for (String key : keys) {
+            stack.push(key);
+        }
+        return stack;
+    }
+
+    @Benchmark
+    public ArrayDeque<String> pushArrayDeque() {
+        ArrayDeque<String> stack = new ArrayDeque<>();
+        for (String key : keys) {
+            stack.push(key);
+        }
+        return stack;
+    }
+
+    /** Pushes all elements, then pops them all. */
+    @Benchmark
+    public void pushPopMyStack(Blackhole blackhole) {
+        MyStack<String> stack = pushMyStack();
+        while (!stack.isEmpty()) {
+            blackhole.consume(stack.pop());
+        }
+    }
+
+    /** Pushes all elements, then pops them all. */
+    @Benchmark
+    public void pushPopArrayDeque(Blackhole blackhole) {
+        ArrayDeque<String> stack = pushArrayDeque();
+        while (!stack.isEmpty()) {
+            blackhole.consume(stack.pop());
+        }
+    }
+}
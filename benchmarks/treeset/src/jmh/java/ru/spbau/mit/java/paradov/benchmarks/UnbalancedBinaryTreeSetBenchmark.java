@@ -0,0 +1,109 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.UnbalancedBinaryTreeSet;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares UnbalancedBinaryTreeSet with java.util.TreeSet.
+ * Every benchmark method processes all keys once, so scores are per whole key set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class UnbalancedBinaryTreeSetBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    @Param({"SORTED", "RANDOM", "COLLIDING"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    private UnbalancedBinaryTreeSet<String> unbalancedSet;
+
+    private TreeSet<String> treeSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.generate(size);
+        unbalancedSet = new UnbalancedBinaryTreeSet<>();
+        treeSet = new TreeSet<>();
+        for (String key : keys) {
+            unbalancedSet.add(key);
+            treeSet.add(key);
+        }
+    }
+
+    @Benchmark
+    public Set<String> addUnbalancedBinaryTreeSet() {
+        return addAll(new UnbalancedBinaryTreeSet<>());
+    }
+
+    @Benchmark
+    public Set<String> addTreeSet() {
+        return addAll(new TreeSet<>());
+    }
+
+    @Benchmark
+    public void containsUnbalancedBinaryTreeSet(Blackhole blackhole) {
+        containsAll(unbalancedSet, blackhole);
+    }
+
+    @Benchmark
+    public void containsTreeSet(Blackhole blackhole) {
+        containsAll(treeSet, blackhole);
+    }
+
+    /** Removes every key and adds it back, so the set is the same after each call. */
+    @Benchmark
+    public void removeUnbalancedBinaryTreeSet(Blackhole blackhole) {
+        removeAll(unbalancedSet, blackhole);
+    }
+
+    /** Removes every key and adds it back, so the set is the same after each call. */
+    @Benchmark
+    public void removeTreeSet(Blackhole blackhole) {
+        removeAll(treeSet, blackhole);
+    }
+
+    @Benchmark
+    public void iterateUnbalancedBinaryTreeSet(Blackhole blackhole) {
+        iterate(unbalancedSet, blackhole);
+    }
+
+    @Benchmark
+    public void iterateTreeSet(Blackhole blackhole) {
+        iterate(treeSet, blackhole);
+    }
+
+    private Set<String> addAll(Set<String> set) {
+        for (String key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    private void containsAll(Set<String> set, Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(set.contains(key));
+        }
+    }
+
+    private void removeAll(Set<String> set, Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(set.remove(key));
+            set.add(key);
+        }
+    }
+
+    private static void iterate(Set<String> set, Blackhole blackhole) {
+        for (String key : set) {
+            blackhole.consume(key);
+        }
+    }
+}
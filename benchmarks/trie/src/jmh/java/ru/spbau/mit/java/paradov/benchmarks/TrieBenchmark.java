@@ -0,0 +1,209 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.spbau.mit.java.paradov.ConcurrentTrie;
+import ru.spbau.mit.java.paradov.RadixTrie;
+import ru.spbau.mit.java.paradov.Trie;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Trie, RadixTrie and ConcurrentTrie with java.util.TreeSet and java.util.HashSet of strings.
+ * Every benchmark method processes all keys once, so scores are per whole key set.
+ * Run add benchmarks with -prof gc to compare memory: gc.alloc.rate.norm of addTrie and addRadixTrie
+ * is the number of bytes allocated to build each trie from the same keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TrieBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"SORTED", "RANDOM", "COLLIDING"})
+    private KeyDistribution distribution;
+
+    private String[] keys;
+
+    private List<String> sortedKeys;
+
+    private Trie trie;
+
+    private RadixTrie radixTrie;
+
+    private ConcurrentTrie concurrentTrie;
+
+    private TreeSet<String> treeSet;
+
+    private HashSet<String> hashSet;
+
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = distribution.generate(size);
+        String[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        sortedKeys = Arrays.asList(sorted);
+        trie = new Trie();
+        radixTrie = new RadixTrie();
+        concurrentTrie = new ConcurrentTrie();
+        treeSet = new TreeSet<>();
+        hashSet = new HashSet<>();
+        for (String key : keys) {
+            trie.add(key);
+            radixTrie.add(key);
+            concurrentTrie.add(key);
+            treeSet.add(key);
+            hashSet.add(key);
+        }
+        serialized = serializeTrie();
+    }
+
+    @Benchmark
+    public Trie addTrie() {
+        Trie result = new Trie();
+        for (String key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public RadixTrie addRadixTrie() {
+        RadixTrie result = new RadixTrie();
+        for (String key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    /** Builds Trie from the same keys in sorted order in one pass. */
+    @Benchmark
+    public Trie buildFromSortedTrie() {
+        return Trie.buildFromSorted(sortedKeys.iterator());
+    }
+
+    @Benchmark
+    public Trie buildFromSortedInParallelTrie() {
+        return Trie.buildFromSortedInParallel(sortedKeys);
+    }
+
+    @Benchmark
+    public ConcurrentTrie addConcurrentTrie() {
+        ConcurrentTrie result = new ConcurrentTrie();
+        for (String key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TreeSet<String> addTreeSet() {
+        TreeSet<String> result = new TreeSet<>();
+        for (String key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public HashSet<String> addHashSet() {
+        HashSet<String> result = new HashSet<>();
+        for (String key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void containsTrie(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(trie.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void containsRadixTrie(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(radixTrie.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void containsConcurrentTrie(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(concurrentTrie.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void containsTreeSet(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(treeSet.contains(key));
+        }
+    }
+
+    @Benchmark
+    public void containsHashSet(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(hashSet.contains(key));
+        }
+    }
+
+    /** Removes every key and adds it back, so the trie is the same after each call. */
+    @Benchmark
+    public void removeTrie(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(trie.remove(key));
+            trie.add(key);
+        }
+    }
+
+    /** Removes every key and adds it back, so the set is the same after each call. */
+    @Benchmark
+    public void removeTreeSet(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(treeSet.remove(key));
+            treeSet.add(key);
+        }
+    }
+
+    /** Counts words under every key's prefix of length 3. */
+    @Benchmark
+    public void prefixTrie(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(trie.howManyStartsWithPrefix(key.substring(0, Math.min(3, key.length()))));
+        }
+    }
+
+    /** Counts words under every key's prefix of length 3. */
+    @Benchmark
+    public void prefixRadixTrie(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(radixTrie.howManyStartsWithPrefix(key.substring(0, Math.min(3, key.length()))));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTrie() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trie.serialize(out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Trie deserializeTrie() throws IOException {
+        Trie result = new Trie();
+        result.deserialize(new ByteArrayInputStream(serialized));
+        return result;
+    }
+}
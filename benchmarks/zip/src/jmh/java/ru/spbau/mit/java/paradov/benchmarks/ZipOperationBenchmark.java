@@ -0,0 +1,83 @@
+package ru.spbau.mit.java.paradov.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.spbau.mit.java.paradov.ExtractionReport;
+import ru.spbau.mit.java.paradov.ZipOperation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Measures throughput of extracting one file of FILE_SIZE_MB megabytes from an archive,
+ * stored without compression or deflated, in both modes of ZipOperation.
+ * One operation is one megabyte, so scores are in megabytes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ZipOperationBenchmark {
+    private static final int FILE_SIZE_MB = 64;
+
+    @Param({"STORED", "DEFLATED"})
+    private String method;
+
+    @Param({"STREAM", "CENTRAL_DIRECTORY"})
+    private ZipOperation.Mode mode;
+
+    private File archiveDir;
+
+    private File outputDir;
+
+    /** Writes archive with one file of text-like data, which deflates about twice. */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        archiveDir = Files.createTempDirectory("zip-benchmark-archives").toFile();
+        outputDir = Files.createTempDirectory("zip-benchmark-output").toFile();
+
+        byte[] data = new byte[FILE_SIZE_MB << 20];
+        Random random = new Random(20171001L);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(16));
+        }
+
+        ZipEntry entry = new ZipEntry("dir/file");
+        if (method.equals("STORED")) {
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(new File(archiveDir, "archive.zip")))) {
+            zos.putNextEntry(entry);
+            zos.write(data);
+            zos.closeEntry();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void cleanOutput() {
+        new File(outputDir, "file").delete();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(outputDir, "file").delete();
+        outputDir.delete();
+        new File(archiveDir, "archive.zip").delete();
+        archiveDir.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_SIZE_MB)
+    public ExtractionReport extract() throws IOException {
+        return ZipOperation.findAndUnzipMatchingFiles(archiveDir.getPath(), ".*", outputDir.getPath(), 1, mode);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.spbau.mit.java.paradov;
+
+import java.util.function.BiConsumer;
+
+/** Ячейка хэш-таблицы, хранящая пары ключ-значение с одинаковым номером ячейки. */
+public interface Bucket {
+
+    /**
+     * Проверяет, содержится ли элемент с ключом key в ячейке.
+     *
+     * @param key ключ, который нужно найти
+     * @return true, если ключ найден, и false, если ключ не найден
+     */
+    boolean contains(String key);
+
+    /**
+     * Возвращает значение по ключу или null, если такого ключа нет.
+     *
+     * @param key ключ, который нужно найти
+     * @return значение по ключу или null, если такого ключа нет
+     */
+    String get(String key);
+
+    /**
+     * Кладет в ячейку значение value по ключу key.
+     *
+     * @param key ключ, по которому кладется значение
+     * @param value значение
+     * @return значение, которое лежало по ключу или null, если такого ключа не было
+     */
+    String put(String key, String value);
+
+    /**
+     * Удаляет из ячейки значение по заданному ключу.
+     *
+     * @param key ключ, по которому удаляется значение
+     * @return удаленное значение, либо null, если ничего не было
+     */
+    String remove(String key);
+
+    /**
+     * Возвращает количество элементов в ячейке.
+     *
+     * @return количество элементов в ячейке
+     */
+    int size();
+
+    /**
+     * Возвращает ключ какого-нибудь элемента ячейки (ячейка не должна быть пуста).
+     *
+     * @return ключ головного элемента
+     */
+    String getHeadKey();
+
+    /**
+     * Возвращает значение головного элемента (ячейка не должна быть пуста).
+     *
+     * @return значение головного элемента
+     */
+    String getHeadValue();
+
+    /** Удаляет головной элемент, если ячейка не пуста. */
+    void removeHead();
+
+    /**
+     * Применяет action к каждой паре ключ-значение ячейки, не меняя ячейку.
+     *
+     * @param action действие над ключом и значением
+     */
+    void forEach(BiConsumer<String, String> action);
+
+}
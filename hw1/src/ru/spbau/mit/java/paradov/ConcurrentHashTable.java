@@ -0,0 +1,263 @@
+package ru.spbau.mit.java.paradov;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Потокобезопасная хэш-таблица с закрытой адресацией.
+ * Листы разбиты на сегменты, у каждого из которых своя блокировка,
+ * поэтому изменения в разных сегментах не мешают друг другу.
+ * Чтение (get, contains, size) не берет блокировок вовсе.
+ */
+public class ConcurrentHashTable {
+
+    /** Количество сегментов по умолчанию. */
+    private static final int DEFAULT_NUM_OF_SEGMENTS = 16;
+
+    /** Начальное количество листов в каждом сегменте. */
+    private static final int INITIAL_LISTS_PER_SEGMENT = 2;
+
+    /** Сегменты таблицы. */
+    private final Segment[] segments;
+
+    /** Маска для выбора сегмента по хэшу. */
+    private final int segmentMask;
+
+    /** Сдвиг хэша, после которого его старшие биты выбирают сегмент. */
+    private final int segmentShift;
+
+    /** Создает таблицу с 16 сегментами. */
+    public ConcurrentHashTable() {
+        this(DEFAULT_NUM_OF_SEGMENTS);
+    }
+
+    /**
+     * Создает таблицу с заданным количеством сегментов.
+     * Количество округляется вверх до степени двойки.
+     *
+     * @param concurrencyLevel сколько потоков предполагается одновременно менять таблицу
+     */
+    public ConcurrentHashTable(int concurrencyLevel) {
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("concurrencyLevel must be positive");
+
+        int numOfSegments = 1;
+        int shift = 0;
+        while (numOfSegments < concurrencyLevel && numOfSegments < (1 << 16)) {
+            numOfSegments <<= 1;
+            shift++;
+        }
+
+        segmentShift = 32 - shift;
+        segmentMask = numOfSegments - 1;
+        segments = new Segment[numOfSegments];
+        for (int i = 0; i < numOfSegments; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Возвращает количество элементов в таблице.
+     * Во время одновременных изменений результат может быть неточным.
+     *
+     * @return количество элементов в таблице
+     */
+    public int size() {
+        int result = 0;
+        for (Segment s : segments) {
+            result += s.count;
+        }
+
+        return result;
+    }
+
+    /**
+     * Проверяет, содержится ли элемент с ключом key в таблице.
+     *
+     * @param key ключ, который нужно найти
+     * @return true, если ключ найден, и false, если ключ не найден
+     */
+    public boolean contains(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Возвращает значение по ключу или null, если такого ключа нет. Не блокирует.
+     *
+     * @param key ключ, который нужно найти
+     * @return значение по ключу или null, если такого ключа нет
+     */
+    public String get(String key) {
+        int h = hash(key);
+        return segmentFor(h).get(key, h);
+    }
+
+    /**
+     * Кладет в хеш-таблицу значение value по ключу key.
+     *
+     * @param key ключ, по которому кладется значение
+     * @param value значение (не null)
+     * @return значение, которое лежало по ключу или null, если такого ключа не было
+     */
+    public String put(String key, String value) {
+        if (value == null)
+            throw new NullPointerException();
+
+        int h = hash(key);
+        return segmentFor(h).put(key, h, value);
+    }
+
+    /**
+     * Удаляет из хэш-таблицы значение по заданному ключу.
+     *
+     * @param key ключ, по которому удаляется значение
+     * @return удаленное значение, либо null, если ничего не было
+     */
+    public String remove(String key) {
+        int h = hash(key);
+        return segmentFor(h).remove(key, h);
+    }
+
+    /** Очищает хэш-таблицу, по очереди блокируя каждый сегмент. */
+    public void clear() {
+        for (Segment s : segments) {
+            s.clear();
+        }
+    }
+
+    /**
+     * Возвращает сегмент, отвечающий хэшу. Сегмент выбирается по старшим битам,
+     * а лист внутри сегмента - по младшим.
+     *
+     * @param h хэш ключа
+     * @return сегмент
+     */
+    private Segment segmentFor(int h) {
+        return segmentMask == 0 ? segments[0] : segments[(h >>> segmentShift) & segmentMask];
+    }
+
+    /**
+     * Функция, вычисляющая перемешанный хэш строки.
+     *
+     * @param key строка, хэш которой нужен
+     * @return хэш строки key
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+
+    /**
+     * Часть таблицы со своей блокировкой и своим массивом листов.
+     * Массив публикуется через volatile-поле, а ячейки читаются через AtomicReferenceArray,
+     * так что читатель всегда видит целиком построенные листы.
+     * Сегмент расширяется независимо от остальных, под своей блокировкой.
+     */
+    private static class Segment {
+        /** Массив голов листов. */
+        private volatile AtomicReferenceArray<Node> table =
+                new AtomicReferenceArray<>(INITIAL_LISTS_PER_SEGMENT);
+
+        /** Количество элементов в сегменте. */
+        private volatile int count = 0;
+
+        private String get(String key, int h) {
+            AtomicReferenceArray<Node> tab = table;
+            Node cur = tab.get(h & (tab.length() - 1));
+            while (cur != null) {
+                if (cur.hash == h && key.equals(cur.key))
+                    return cur.value;
+                cur = cur.next;
+            }
+
+            return null;
+        }
+
+        private synchronized String put(String key, int h, String value) {
+            AtomicReferenceArray<Node> tab = table;
+            int index = h & (tab.length() - 1);
+            Node head = tab.get(index);
+            for (Node cur = head; cur != null; cur = cur.next) {
+                if (cur.hash == h && key.equals(cur.key)) {
+                    String oldVal = cur.value;
+                    cur.value = value;
+                    return oldVal;
+                }
+            }
+
+            tab.set(index, new Node(key, h, value, head));
+            int newCount = count + 1;
+            count = newCount;
+            if (newCount > tab.length() - (tab.length() >>> 2))
+                resize();
+
+            return null;
+        }
+
+        /**
+         * Удаляет элемент, копируя часть листа перед ним: узлы, которые могут
+         * сейчас читаться другими потоками, никогда не меняют свой next.
+         */
+        private synchronized String remove(String key, int h) {
+            AtomicReferenceArray<Node> tab = table;
+            int index = h & (tab.length() - 1);
+            Node head = tab.get(index);
+            Node target = head;
+            while (target != null && !(target.hash == h && key.equals(target.key))) {
+                target = target.next;
+            }
+
+            if (target == null)
+                return null;
+
+            Node newHead = target.next;
+            for (Node cur = head; cur != target; cur = cur.next) {
+                newHead = new Node(cur.key, cur.hash, cur.value, newHead);
+            }
+            tab.set(index, newHead);
+            count = count - 1;
+
+            return target.value;
+        }
+
+        private synchronized void clear() {
+            table = new AtomicReferenceArray<>(INITIAL_LISTS_PER_SEGMENT);
+            count = 0;
+        }
+
+        /**
+         * Удваивает количество листов в сегменте. Новый массив строится из копий узлов
+         * и публикуется целиком, так что читатели старого массива ничего не замечают.
+         */
+        private void resize() {
+            AtomicReferenceArray<Node> oldTab = table;
+            int newLength = oldTab.length() << 1;
+            AtomicReferenceArray<Node> newTab = new AtomicReferenceArray<>(newLength);
+            for (int i = 0; i < oldTab.length(); i++) {
+                for (Node cur = oldTab.get(i); cur != null; cur = cur.next) {
+                    int index = cur.hash & (newLength - 1);
+                    newTab.set(index, new Node(cur.key, cur.hash, cur.value, newTab.get(index)));
+                }
+            }
+
+            table = newTab;
+        }
+    }
+
+    /** Элемент листа. Все поля, кроме значения, неизменяемы. */
+    private static class Node {
+        private final String key;
+        private final int hash;
+        private volatile String value;
+        private final Node next;
+
+        private Node(String key, int hash, String value, Node next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+}
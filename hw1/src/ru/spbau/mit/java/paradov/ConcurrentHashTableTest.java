@@ -0,0 +1,98 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentHashTableTest {
+    /**
+     * Tests put(), get() and contains() from one thread.
+     */
+    @Test
+    void testPutAndGet() {
+        ConcurrentHashTable h = new ConcurrentHashTable();
+        assertEquals(null, h.put("key", "value"));
+        assertEquals("value", h.put("key", "newValue"));
+
+        assertEquals(true, h.contains("key"));
+        assertEquals("newValue", h.get("key"));
+        assertEquals(1, h.size());
+    }
+
+    /**
+     * Tests if remove() keeps the rest of the list reachable.
+     * Keys in this test have the same hashCode() % 16.
+     */
+    @Test
+    void testRemoveWithCollisions() {
+        ConcurrentHashTable h = new ConcurrentHashTable(1);
+        h.put("kem5", "value1");
+        h.put("kel4", "value2");
+        h.put("kex0", "value3");
+
+        assertEquals("value2", h.remove("kel4"));
+        assertEquals(null, h.remove("kel4"));
+        assertEquals("value1", h.get("kem5"));
+        assertEquals("value3", h.get("kex0"));
+        assertEquals(2, h.size());
+    }
+
+    /**
+     * Tests if get() works correctly after resizing segments and clear() empties table.
+     */
+    @Test
+    void testResizeAndClear() {
+        ConcurrentHashTable h = new ConcurrentHashTable();
+        for (int i = 0; i < 10000; i++){
+            h.put("key" + i, "value" + i);
+        }
+
+        assertEquals(10000, h.size());
+        assertEquals("value5130", h.get("key5130"));
+
+        h.clear();
+        assertEquals(0, h.size());
+        assertEquals(false, h.contains("key5130"));
+    }
+
+    /**
+     * Tests if writers in different threads do not lose elements
+     * while readers read concurrently.
+     */
+    @Test
+    void testConcurrentPutsAndGets() throws Exception {
+        ConcurrentHashTable h = new ConcurrentHashTable(4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int id = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        h.put("key" + id + "_" + i, "value" + i);
+                        assertEquals("value" + i, h.get("key" + id + "_" + i));
+                        if (i % 2 == 1) {
+                            assertEquals("value" + i, h.remove("key" + id + "_" + i));
+                        }
+                    }
+                }));
+            }
+            // get() rethrows assertion failures of workers
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8 * 2500, h.size());
+        assertEquals("value4998", h.get("key7_4998"));
+        assertEquals(false, h.contains("key7_4999"));
+    }
+}
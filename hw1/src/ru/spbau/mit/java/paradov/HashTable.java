@@ -1,12 +1,19 @@
 package ru.spbau.mit.java.paradov;
 
-import static java.lang.Math.abs;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
 
-/** Хэш-таблица с закрытой адресацией (на самодельных списках). */
+/**
+ * Хэш-таблица с закрытой адресацией (на самодельных списках).
+ * Слишком длинный список превращается в сбалансированное дерево,
+ * поэтому даже при множестве коллизий поиск работает за логарифм.
+ */
 public class HashTable {
 
-    /** Массив листов, в которых хранятся данные. */
-    private MyList[] table;
+    /** Массив листов, в которых хранятся данные. Лист создается при первой записи в него, до этого там null. */
+    private Bucket[] table;
 
     /** Количество элементов в таблице. */
     private int numOfElements = 0;
@@ -17,13 +24,50 @@ public class HashTable {
     /** Константа, определяющая, когда количество элементов становится слишком большим. */
     private final int MAX_SIZE_PER_LIST = 16;
 
-    /** Создает таблицу с 16 списками. */
+    /** Лист длиннее этого превращается в дерево. */
+    private static final int TREEIFY_THRESHOLD = 2 * 16;
+
+    /** Дерево короче этого превращается обратно в лист. */
+    private static final int UNTREEIFY_THRESHOLD = 16;
+
+    /** Случайная соль хэш-функции, своя у каждой таблицы. */
+    private final int seed = ThreadLocalRandom.current().nextInt();
+
+    /** Сколько листов старой таблицы переносится за одну операцию при постепенном перехэшировании. */
+    private static final int LISTS_PER_REHASH_STEP = 4;
+
+    /** Перехэшировать ли элементы постепенно, а не все сразу. */
+    private final boolean incrementalResize;
+
+    /** Старая таблица, из которой еще переносятся элементы, или null, если перенос не идет. */
+    private Bucket[] oldTable = null;
+
+    /** Количество листов в старой таблице. */
+    private int oldNumOfLists = 0;
+
+    /** Листы старой таблицы с номерами меньше этого уже перенесены в новую. */
+    private int rehashIndex = 0;
+
+    /** Сколько листов старой таблицы перенесла последняя вставка или удаление. */
+    private int listsMovedByLastOperation = 0;
+
+    /** Создает таблицу с 16 списками, которая перехэширует все элементы сразу. */
     public HashTable() {
-        table = new MyList[numOfLists];
+        this(false);
+    }
 
-        for (int i = 0; i < numOfLists; i++) {
-            table[i] = new MyList();
-        }
+    /**
+     * Создает таблицу с 16 списками.
+     * При постепенном перехэшировании старая и новая таблицы живут одновременно,
+     * и каждая вставка или удаление переносит лишь несколько листов,
+     * так что ни одна операция не перекладывает всю таблицу целиком.
+     * Листы новой таблицы тоже создаются по одному при первой записи.
+     *
+     * @param incrementalResize true, если перехэшировать элементы нужно постепенно
+     */
+    public HashTable(boolean incrementalResize) {
+        this.incrementalResize = incrementalResize;
+        table = new Bucket[numOfLists];
     }
 
     /**
@@ -42,7 +86,9 @@ public class HashTable {
      * @return true, если ключ найден, и false, если ключ не найден
      */
     public boolean contains(String key) {
-        return table[hash(key, numOfLists)].contains(key);
+        Bucket[] t = tableFor(key);
+        Bucket bucket = t[hash(key, t.length)];
+        return bucket != null && bucket.contains(key);
     }
 
     /**
@@ -52,7 +98,9 @@ public class HashTable {
      * @return значение по ключу или null, если такого ключа нет
      */
     public String get(String key) {
-        return table[hash(key, numOfLists)].get(key);
+        Bucket[] t = tableFor(key);
+        Bucket bucket = t[hash(key, t.length)];
+        return bucket == null ? null : bucket.get(key);
     }
 
     /**
@@ -65,10 +113,11 @@ public class HashTable {
      * @return значение, которое лежало по ключу или null, если такого ключа не было
      */
     public String put(String key, String value) {
+        rehashStep();
         if (numOfElements > MAX_SIZE_PER_LIST * numOfLists)
             resize(MAX_SIZE_PER_LIST * numOfLists);
 
-        String toReturn = table[hash(key, numOfLists)].put(key, value);
+        String toReturn = putInto(tableFor(key), key, value);
         if (toReturn == null) {
             numOfElements++;
         }
@@ -76,29 +125,120 @@ public class HashTable {
         return toReturn;
     }
 
+    /**
+     * Кладет пару в нужную ячейку массива и превращает ячейку в дерево, если она стала слишком длинной.
+     *
+     * @param t массив ячеек (новая или старая таблица)
+     * @param key ключ, по которому кладется значение
+     * @param value значение
+     * @return значение, которое лежало по ключу или null, если такого ключа не было
+     */
+    private String putInto(Bucket[] t, String key, String value) {
+        int i = hash(key, t.length);
+        if (t[i] == null)
+            t[i] = new MyList();
+
+        String toReturn = t[i].put(key, value);
+        if (t[i].size() > TREEIFY_THRESHOLD && t[i] instanceof MyList)
+            t[i] = moveAll(t[i], new MyTree());
+
+        return toReturn;
+    }
+
+    /**
+     * Перекладывает все элементы одной ячейки в другую, опустошая первую.
+     *
+     * @param from ячейка, из которой берутся элементы
+     * @param to ячейка, в которую кладутся элементы
+     * @return ячейка to
+     */
+    private static Bucket moveAll(Bucket from, Bucket to) {
+        while (from.size() > 0) {
+            to.put(from.getHeadKey(), from.getHeadValue());
+            from.removeHead();
+        }
+
+        return to;
+    }
+
     /**
      * Меняет размер массива на заданный и перехэширует все элементы туда.
+     * При постепенном перехэшировании только начинает перенос элементов.
+     * Предыдущий перенос к этому моменту всегда закончен: таблица растет в MAX_SIZE_PER_LIST раз,
+     * так что до следующего увеличения нужно не меньше (MAX_SIZE_PER_LIST - 1) * MAX_SIZE_PER_LIST
+     * вставок на каждый старый лист, а каждая вставка переносит LISTS_PER_REHASH_STEP листов.
      *
      * @param newNumOfLists новое количество листов в таблице.
      */
     private void resize(int newNumOfLists) {
-        MyList[] newTable = new MyList[newNumOfLists];
+        Bucket[] newTable = new Bucket[newNumOfLists];
+
+        oldTable = table;
+        oldNumOfLists = numOfLists;
+        rehashIndex = 0;
+        table = newTable;
+        numOfLists = newNumOfLists;
+
+        if (!incrementalResize)
+            finishRehash();
+    }
+
+    /** Переносит в новую таблицу несколько листов старой, если перенос идет. */
+    private void rehashStep() {
+        listsMovedByLastOperation = 0;
+        if (oldTable == null)
+            return;
 
-        for (int i = 0; i < newNumOfLists; i++) {
-            newTable[i] = new MyList();
+        int end = Math.min(rehashIndex + LISTS_PER_REHASH_STEP, oldNumOfLists);
+        while (rehashIndex < end) {
+            moveList(oldTable[rehashIndex]);
+            rehashIndex++;
+            listsMovedByLastOperation++;
         }
 
-        for (int i = 0; i < numOfLists; i++) {
-            while (table[i].getHead() != null) {
-                int newListNum = hash(table[i].getHeadKey(), newNumOfLists);
-                newTable[newListNum].put(table[i].getHeadKey(), table[i].getHeadValue());
+        if (rehashIndex == oldNumOfLists)
+            oldTable = null;
+    }
 
-                table[i].remove(table[i].getHeadKey());
-            }
+    /** Переносит в новую таблицу все оставшиеся листы старой. */
+    private void finishRehash() {
+        while (rehashIndex < oldNumOfLists) {
+            moveList(oldTable[rehashIndex]);
+            rehashIndex++;
+            listsMovedByLastOperation++;
         }
 
-        table = newTable;
-        numOfLists = newNumOfLists;
+        oldTable = null;
+    }
+
+    /**
+     * Переносит все элементы листа старой таблицы в новую, опустошая лист.
+     *
+     * @param list лист старой таблицы
+     */
+    private void moveList(Bucket list) {
+        if (list == null)
+            return;
+
+        while (list.size() > 0) {
+            putInto(table, list.getHeadKey(), list.getHeadValue());
+
+            list.removeHead();
+        }
+    }
+
+    /**
+     * Возвращает массив, в котором должен лежать ключ key.
+     * Пока идет перенос, это старая таблица, если лист ключа еще не перенесен.
+     *
+     * @param key ключ
+     * @return массив листов, отвечающий ключу
+     */
+    private Bucket[] tableFor(String key) {
+        if (oldTable != null && hash(key, oldNumOfLists) >= rehashIndex)
+            return oldTable;
+
+        return table;
     }
 
     /**
@@ -108,7 +248,15 @@ public class HashTable {
      * @return удаленное значение, либо null, если ничего не было
      */
     public String remove(String key) {
-        String toReturn = table[hash(key, numOfLists)].remove(key);
+        rehashStep();
+        Bucket[] t = tableFor(key);
+        int i = hash(key, t.length);
+        if (t[i] == null)
+            return null;
+
+        String toReturn = t[i].remove(key);
+        if (t[i].size() < UNTREEIFY_THRESHOLD && t[i] instanceof MyTree)
+            t[i] = moveAll(t[i], new MyList());
 
         if (toReturn != null)
             numOfElements--;
@@ -116,25 +264,87 @@ public class HashTable {
         return toReturn;
     }
 
-    /** Очищает хэш-таблицу. */
-    public void clear() {
-        table = new MyList[numOfLists];
+    /**
+     * Применяет action к каждой паре ключ-значение таблицы. Таблицу менять при этом нельзя.
+     *
+     * @param action действие над ключом и значением
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        if (oldTable != null) {
+            for (int i = rehashIndex; i < oldNumOfLists; i++) {
+                if (oldTable[i] != null)
+                    oldTable[i].forEach(action);
+            }
+        }
 
-        for (int i = 0; i < numOfLists; i++) {
-            table[i] = new MyList();
+        for (Bucket bucket : table) {
+            if (bucket != null)
+                bucket.forEach(action);
         }
+    }
 
+    /**
+     * Записывает таблицу в файл в формате, который можно отобразить в память методом mapFrom.
+     *
+     * @param path файл, в который записывается таблица
+     * @throws IOException если не удалось записать файл
+     */
+    public void saveTo(Path path) throws IOException {
+        MappedHashTable.write(this, path);
+    }
+
+    /**
+     * Отображает в память таблицу, записанную методом saveTo.
+     * Элементы не загружаются в кучу, а читаются из файла при каждом обращении.
+     *
+     * @param path файл с таблицей
+     * @return таблица, доступная только для чтения
+     * @throws IOException если файл не удалось прочитать или он имеет неверный формат
+     */
+    public static MappedHashTable mapFrom(Path path) throws IOException {
+        return MappedHashTable.map(path);
+    }
+
+    /** Очищает хэш-таблицу. */
+    public void clear() {
+        oldTable = null;
+        table = new Bucket[numOfLists];
         numOfElements = 0;
     }
 
+    /**
+     * Возвращает, сколько листов старой таблицы перенесла последняя вставка или удаление.
+     * При постепенном перехэшировании это не больше LISTS_PER_REHASH_STEP.
+     *
+     * @return количество перенесенных листов
+     */
+    int getListsMovedByLastOperation() {
+        return listsMovedByLastOperation;
+    }
+
+    /**
+     * Проверяет, идет ли сейчас перенос элементов из старой таблицы.
+     *
+     * @return true, если старая таблица еще не перенесена целиком
+     */
+    boolean isRehashing() {
+        return oldTable != null;
+    }
+
     /**
      * Функция, вычисляющая хэш строки по модулю переданного числа.
+     * hashCode() перемешивается с солью таблицы, так что заранее подобрать ключи,
+     * попадающие в одну ячейку, можно только при совпадающем hashCode().
      * @param key строка, хэш которой нужен
      * @param mod число, по модулю которого вычисляется хэш
      * @return хеш строки key по модулю mod
      */
     private int hash(String key, int mod) {
-        return abs(key.hashCode()) % mod;
+        int h = key.hashCode() ^ seed;
+        h = (h ^ (h >>> 16)) * 0x85ebca6b;
+        h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+        h ^= h >>> 16;
+        return (h & 0x7fffffff) % mod;
     }
 
 }
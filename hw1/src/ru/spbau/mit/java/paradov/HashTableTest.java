@@ -283,5 +283,148 @@ class HashTableTest {
         assertEquals(null, h.get("key512"));
     }
 
+    /**
+     * Tests if incrementally resizing table keeps every element reachable during and after resize.
+     */
+    @org.junit.jupiter.api.Test
+    void testGetWithIncrementalResize() {
+        HashTable h = new HashTable(true);
+        for (int i = 0; i < 10000; i++){
+            h.put("key" + i, "value" + i);
+            assertEquals("value" + (i / 2), h.get("key" + (i / 2)));
+        }
+
+        assertEquals(10000, h.size());
+        for (int i = 0; i < 10000; i++){
+            assertEquals("value" + i, h.get("key" + i));
+        }
+    }
+
+    /**
+     * Tests if put() and remove() on incrementally resizing table find keys that were not moved yet.
+     */
+    @org.junit.jupiter.api.Test
+    void testPutAndRemoveWithIncrementalResize() {
+        HashTable h = new HashTable(true);
+        for (int i = 0; i < 300; i++){
+            h.put("key" + i, "value" + i);
+        }
+
+        assertEquals("value299", h.put("key299", "newValue299"));
+        assertEquals("value0", h.remove("key0"));
+        assertEquals(null, h.get("key0"));
+        assertEquals("newValue299", h.get("key299"));
+        assertEquals(299, h.size());
+    }
+
+    /**
+     * Tests if no put() or remove() on incrementally resizing table moves more than
+     * LISTS_PER_REHASH_STEP lists, even when table grows several times,
+     * and if every resize is spread over many operations.
+     */
+    @org.junit.jupiter.api.Test
+    void testIncrementalResizeMovesFewListsPerOperation() {
+        HashTable h = new HashTable(true);
+        int resizes = 0;
+        int maxOperationsPerResize = 0;
+        int operationsInCurrentResize = 0;
+        for (int i = 0; i < 100000; i++){
+            boolean wasRehashing = h.isRehashing();
+            h.put("key" + i, "value" + i);
+            assertTrue(h.getListsMovedByLastOperation() <= 4);
+            if (!wasRehashing && h.isRehashing()) {
+                resizes++;
+                operationsInCurrentResize = 0;
+            }
+            if (h.isRehashing() || h.getListsMovedByLastOperation() > 0) {
+                operationsInCurrentResize++;
+                maxOperationsPerResize = Math.max(maxOperationsPerResize, operationsInCurrentResize);
+            }
+
+            if (i % 3 == 0) {
+                h.remove("key" + (i / 2));
+                assertTrue(h.getListsMovedByLastOperation() <= 4);
+            }
+        }
+
+        assertTrue(resizes >= 2);
+        assertTrue(maxOperationsPerResize > 1);
+        for (int i = 99990; i < 100000; i++){
+            assertEquals("value" + i, h.get("key" + i));
+        }
+    }
+
+    /**
+     * Tests if keys are found both in moved and not yet moved lists while resize is in progress,
+     * and if table without incremental resize moves all lists in one put().
+     */
+    @org.junit.jupiter.api.Test
+    void testGetWhileRehashing() {
+        HashTable h = new HashTable(true);
+        int n = 0;
+        while (!h.isRehashing() && n < 1000) {
+            h.put("key" + n, "value" + n);
+            n++;
+        }
+        assertTrue(h.isRehashing());
+
+        int puts = 0;
+        while (h.isRehashing()) {
+            for (int i = 0; i < n; i++) {
+                assertEquals("value" + i, h.get("key" + i));
+            }
+            h.put("extra" + puts, "value");
+            puts++;
+        }
+        assertTrue(puts > 1);
+        for (int i = 0; i < n; i++) {
+            assertEquals("value" + i, h.get("key" + i));
+        }
+
+        HashTable eager = new HashTable();
+        for (int i = 0; i < n; i++) {
+            eager.put("key" + i, "value" + i);
+        }
+        assertFalse(eager.isRehashing());
+        assertEquals(16, eager.getListsMovedByLastOperation());
+    }
+
+    /**
+     * Tests table with many keys that have the same hashCode(), so their list is turned into a tree.
+     * Every key is a concatenation of "Aa" and "BB", which have equal hashCode().
+     */
+    @org.junit.jupiter.api.Test
+    void testManyKeysWithEqualHashCode() {
+        HashTable h = new HashTable();
+        for (int i = 0; i < 1024; i++){
+            h.put(collidingKey(i), "value" + i);
+        }
+
+        assertEquals(1024, h.size());
+        assertEquals("value513", h.get(collidingKey(513)));
+        for (int i = 0; i < 1024; i += 2){
+            assertEquals("value" + i, h.remove(collidingKey(i)));
+        }
+
+        assertEquals(512, h.size());
+        assertEquals(null, h.get(collidingKey(512)));
+        assertEquals("value513", h.get(collidingKey(513)));
+        for (int i = 1; i < 1024; i += 2){
+            h.remove(collidingKey(i));
+        }
+        assertEquals(0, h.size());
+    }
+
+    /**
+     * Builds a string of ten "Aa" or "BB" blocks according to bits of i.
+     * All such strings have the same hashCode().
+     */
+    private String collidingKey(int i) {
+        StringBuilder builder = new StringBuilder();
+        for (int bit = 0; bit < 10; bit++) {
+            builder.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+        }
+        return builder.toString();
+    }
 
 }
\ No newline at end of file
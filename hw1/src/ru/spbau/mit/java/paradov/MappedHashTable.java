@@ -0,0 +1,273 @@
+package ru.spbau.mit.java.paradov;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Хэш-таблица только для чтения, отображенная в память из файла, записанного HashTable.saveTo.
+ * Элементы не загружаются в кучу: get и contains читают их прямо из MappedByteBuffer,
+ * поэтому открытие таблицы занимает O(1) независимо от ее размера.
+ *
+ * Формат файла (все числа - int в порядке big-endian):
+ * заголовок MAGIC, VERSION, количество элементов, количество ячеек (степень двойки), соль хэша;
+ * затем смещения начала каждой ячейки в области данных (количество ячеек + 1 чисел);
+ * затем область данных, где элементы каждой ячейки лежат подряд в виде
+ * хэш ключа, длина ключа, ключ в UTF-8, длина значения (-1 для null), значение в UTF-8.
+ * Размер файла ограничен 2 ГБ. При открытии проверяется только заголовок, а если повреждены
+ * сами ячейки, get и contains бросают IllegalStateException.
+ */
+public class MappedHashTable {
+
+    /** Первые четыре байта файла: "HTBL". */
+    private static final int MAGIC = 0x4854424c;
+
+    /** Версия формата. */
+    private static final int VERSION = 1;
+
+    /** Размер заголовка в байтах. */
+    private static final int HEADER_SIZE = 5 * 4;
+
+    /** Содержимое файла. */
+    private final MappedByteBuffer buffer;
+
+    /** Количество элементов в таблице. */
+    private final int numOfElements;
+
+    /** Количество ячеек в таблице. */
+    private final int numOfBuckets;
+
+    /** Соль хэш-функции, с которой таблица была записана. */
+    private final int seed;
+
+    /** Позиция начала области данных в файле. */
+    private final int dataStart;
+
+    private MappedHashTable(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a hash table file");
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException("Unsupported hash table file version " + buffer.getInt(4));
+
+        numOfElements = buffer.getInt(8);
+        numOfBuckets = buffer.getInt(12);
+        seed = buffer.getInt(16);
+        if (numOfBuckets <= 0 || Integer.bitCount(numOfBuckets) != 1
+                || numOfBuckets >= (buffer.capacity() - HEADER_SIZE) / 4)
+            throw new IOException("Corrupted hash table file");
+
+        dataStart = HEADER_SIZE + 4 * (numOfBuckets + 1);
+        if (dataStart + buffer.getInt(HEADER_SIZE + 4 * numOfBuckets) != buffer.capacity())
+            throw new IOException("Corrupted hash table file");
+    }
+
+    /**
+     * Возвращает количество элементов в таблице.
+     *
+     * @return количество элементов в таблице
+     */
+    public int size() {
+        return numOfElements;
+    }
+
+    /**
+     * Проверяет, содержится ли элемент с ключом key в таблице.
+     *
+     * @param key ключ, который нужно найти
+     * @return true, если ключ найден, и false, если ключ не найден
+     */
+    public boolean contains(String key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Возвращает значение по ключу или null, если такого ключа нет.
+     *
+     * @param key ключ, который нужно найти
+     * @return значение по ключу или null, если такого ключа нет
+     */
+    public String get(String key) {
+        int position = find(key);
+        if (position < 0)
+            return null;
+
+        int length = buffer.getInt(position);
+        return length < 0 ? null : readString(position + 4, length);
+    }
+
+    /**
+     * Ищет элемент с ключом key.
+     * Файл при открытии проверяется только по заголовку, поэтому границы ячейки и длины
+     * ключей и значений проверяются здесь, при чтении.
+     *
+     * @param key ключ, который нужно найти
+     * @return позиция длины значения найденного элемента или -1, если ключа нет
+     * @throws IllegalStateException если ячейка в файле повреждена
+     */
+    private int find(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int h = hash(key, seed);
+        int bucket = h & (numOfBuckets - 1);
+        int start = buffer.getInt(HEADER_SIZE + 4 * bucket);
+        int finish = buffer.getInt(HEADER_SIZE + 4 * (bucket + 1));
+        if (start < 0 || start > finish || finish > buffer.capacity() - dataStart)
+            throw corrupted();
+
+        int position = dataStart + start;
+        int end = dataStart + finish;
+        while (position < end) {
+            if (end - position < 12)
+                throw corrupted();
+
+            int entryHash = buffer.getInt(position);
+            int keyLength = buffer.getInt(position + 4);
+            if (keyLength < 0 || keyLength > end - position - 12)
+                throw corrupted();
+
+            int valuePosition = position + 8 + keyLength;
+            int valueLength = buffer.getInt(valuePosition);
+            if (valueLength < -1 || valueLength > end - valuePosition - 4)
+                throw corrupted();
+
+            if (entryHash == h && keyLength == keyBytes.length && bytesEqual(position + 8, keyBytes))
+                return valuePosition;
+
+            position = valuePosition + 4 + Math.max(valueLength, 0);
+        }
+
+        return -1;
+    }
+
+    private static IllegalStateException corrupted() {
+        return new IllegalStateException("Corrupted hash table file");
+    }
+
+    private boolean bytesEqual(int position, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(position + i) != bytes[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Отображает файл в память.
+     *
+     * @param path файл с таблицей
+     * @return таблица, доступная только для чтения
+     * @throws IOException если файл не удалось прочитать или он имеет неверный формат
+     */
+    static MappedHashTable map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Hash table file is too large");
+
+            return new MappedHashTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Записывает таблицу в файл.
+     *
+     * @param table таблица, которую нужно записать
+     * @param path файл, в который записывается таблица
+     * @throws IOException если не удалось записать файл или таблица не поместится в отображаемый файл (2 ГБ)
+     */
+    static void write(HashTable table, Path path) throws IOException {
+        int[] count = {0};
+        table.forEach((key, value) -> count[0]++);
+        int n = count[0];
+        int numOfBuckets = Integer.highestOneBit(Math.max(n, 1) * 2 - 1);
+        int seed = ThreadLocalRandom.current().nextInt();
+
+        int[] hashes = new int[n];
+        byte[][] keys = new byte[n][];
+        byte[][] values = new byte[n][];
+        long[] bucketStart = new long[numOfBuckets + 1];
+        count[0] = 0;
+        table.forEach((key, value) -> {
+            int i = count[0]++;
+            hashes[i] = hash(key, seed);
+            keys[i] = key.getBytes(StandardCharsets.UTF_8);
+            values[i] = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+            bucketStart[(hashes[i] & (numOfBuckets - 1)) + 1] += 12 + keys[i].length
+                    + (values[i] == null ? 0 : values[i].length);
+        });
+
+        for (int b = 0; b < numOfBuckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        if (HEADER_SIZE + 4L * (numOfBuckets + 1) + bucketStart[numOfBuckets] > Integer.MAX_VALUE)
+            throw new IOException("Hash table is too large");
+
+        int[] order = new int[n];
+        int[] next = new int[numOfBuckets];
+        for (int i = 0; i < n; i++) {
+            next[hashes[i] & (numOfBuckets - 1)]++;
+        }
+        for (int b = 0, sum = 0; b < numOfBuckets; b++) {
+            int c = next[b];
+            next[b] = sum;
+            sum += c;
+        }
+        for (int i = 0; i < n; i++) {
+            order[next[hashes[i] & (numOfBuckets - 1)]++] = i;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(numOfBuckets);
+            out.writeInt(seed);
+            for (long offset : bucketStart) {
+                out.writeInt((int) offset);
+            }
+
+            for (int i : order) {
+                out.writeInt(hashes[i]);
+                out.writeInt(keys[i].length);
+                out.write(keys[i]);
+                if (values[i] == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(values[i].length);
+                    out.write(values[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Хэш строки, не зависящий от запуска программы (кроме соли, которая хранится в файле).
+     *
+     * @param key строка, хэш которой нужен
+     * @param seed соль
+     * @return хэш строки
+     */
+    private static int hash(String key, int seed) {
+        int h = key.hashCode() ^ seed;
+        h = (h ^ (h >>> 16)) * 0x85ebca6b;
+        h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,143 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedHashTableTest {
+    /**
+     * Tests if table saved with saveTo() and mapped with mapFrom() has the same elements.
+     */
+    @Test
+    void testSaveAndMap() throws IOException {
+        HashTable h = new HashTable();
+        for (int i = 0; i < 1000; i++){
+            h.put("key" + i, "value" + i);
+        }
+        h.put("ключ", "значение");
+        h.put("", "empty key");
+
+        Path file = Files.createTempFile("table", ".bin");
+        try {
+            h.saveTo(file);
+            MappedHashTable m = HashTable.mapFrom(file);
+
+            assertEquals(1002, m.size());
+            assertEquals("value513", m.get("key513"));
+            assertEquals("значение", m.get("ключ"));
+            assertEquals("empty key", m.get(""));
+            assertEquals(true, m.contains("key999"));
+            assertEquals(false, m.contains("key1000"));
+            assertEquals(null, m.get("this key is not in table"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests if empty table can be saved and mapped.
+     */
+    @Test
+    void testSaveAndMapEmptyTable() throws IOException {
+        Path file = Files.createTempFile("table", ".bin");
+        try {
+            new HashTable().saveTo(file);
+            MappedHashTable m = HashTable.mapFrom(file);
+
+            assertEquals(0, m.size());
+            assertEquals(false, m.contains("key"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests if mapFrom() rejects file of wrong format.
+     */
+    @Test
+    void testMapWrongFile() throws IOException {
+        Path file = Files.createTempFile("table", ".bin");
+        try {
+            Files.write(file, "not a table".getBytes(StandardCharsets.UTF_8));
+
+            assertThrows(IOException.class, () -> HashTable.mapFrom(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests if lookups in a mapped file with damaged bucket offsets throw IllegalStateException
+     * instead of reading outside of the file.
+     */
+    @Test
+    void testDamagedBucketOffset() throws IOException {
+        Path file = saveTable(1000);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            ByteBuffer header = ByteBuffer.wrap(data);
+            int numOfBuckets = header.getInt(12);
+            for (int b = 1; b < numOfBuckets; b++) {
+                header.putInt(20 + 4 * b, b % 2 == 0 ? Integer.MAX_VALUE - 8 : -8);
+            }
+            Files.write(file, data);
+
+            MappedHashTable m = HashTable.mapFrom(file);
+            for (int i = 0; i < 1000; i++) {
+                String key = "key" + i;
+                assertThrows(IllegalStateException.class, () -> m.get(key));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests if lookup in a bucket whose entry has damaged key length throws IllegalStateException,
+     * and lookups in other buckets still work.
+     */
+    @Test
+    void testDamagedKeyLength() throws IOException {
+        Path file = saveTable(1000);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            int dataStart = 20 + 4 * (buffer.getInt(12) + 1);
+            buffer.putInt(dataStart + 4, Integer.MAX_VALUE);
+            Files.write(file, data);
+
+            MappedHashTable m = HashTable.mapFrom(file);
+            int failed = 0;
+            for (int i = 0; i < 1000; i++) {
+                try {
+                    assertEquals("value" + i, m.get("key" + i));
+                } catch (IllegalStateException e) {
+                    failed++;
+                }
+            }
+            assertTrue(failed > 0 && failed < 1000);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Saves table with keys key0, key1, ... and values value0, value1, ... into temporary file.
+     */
+    private static Path saveTable(int size) throws IOException {
+        HashTable h = new HashTable();
+        for (int i = 0; i < size; i++){
+            h.put("key" + i, "value" + i);
+        }
+
+        Path file = Files.createTempFile("table", ".bin");
+        h.saveTo(file);
+        return file;
+    }
+}
@@ -1,17 +1,23 @@
 package ru.spbau.mit.java.paradov;
 
+import java.util.function.BiConsumer;
+
 /** Двусвязный список. */
-public class MyList {
+public class MyList implements Bucket {
 
     /** Голова двусвязного списка. */
     private Node head = null;
 
+    /** Количество элементов в списке. */
+    private int size = 0;
+
     /**
      * Проверяет, содержится ли элемент с ключом key в списке.
      *
      * @param key ключ, который нужно найти
      * @return true, если ключ найден, и false, если ключ не найден
      */
+    @Override
     public boolean contains(String key) {
         Node cur = head;
         while (cur != null) {
@@ -28,6 +34,7 @@ public class MyList {
      * @param key ключ, который нужно найти
      * @return значение по ключу или null, если такого ключа нет
      */
+    @Override
     public String get(String key) {
         Node cur = head;
         while (cur != null) {
@@ -47,6 +54,7 @@ public class MyList {
      * @param value значение
      * @return значение, которое лежало по ключу или null, если такого ключа не было
      */
+    @Override
     public String put(String key, String value) {
         Node cur = head;
         while (cur != null) {
@@ -62,6 +70,7 @@ public class MyList {
         if (head != null)
             head.prev = newNode;
         head = newNode;
+        size++;
 
         return null;
     }
@@ -72,6 +81,7 @@ public class MyList {
      * @param key ключ, по которому удаляется значение
      * @return удаленное значение, либо null, если ничего не было
      */
+    @Override
     public String remove(String key) {
         Node cur = head;
         while (cur != null) {
@@ -87,6 +97,8 @@ public class MyList {
                 if (cur == head)
                     head = head.next;
 
+                size--;
+
                 return oldVal;
             }
             cur = cur.next;
@@ -95,14 +107,40 @@ public class MyList {
         return null;
     }
 
+    /** Удаляет голову листа, если лист не пуст. Работает за O(1), в отличие от remove(getHeadKey()). */
+    @Override
+    public void removeHead() {
+        if (head == null)
+            return;
+
+        head = head.next;
+        if (head != null)
+            head.prev = null;
+        size--;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, String> action) {
+        for (Node cur = head; cur != null; cur = cur.next) {
+            action.accept(cur.key, cur.value);
+        }
+    }
+
     public Node getHead() {
         return head;
     }
 
+    @Override
     public String getHeadKey() {
         return head.key;
     }
 
+    @Override
     public String getHeadValue() {
         return head.value;
     }
@@ -177,4 +177,19 @@ class MyListTest {
         assertEquals("key8", l.getHeadKey());
     }
 
+    /**
+     * Tests if removeHead() removes exactly the head and keeps the rest of the list.
+     */
+    @Test
+    void testRemoveHead() {
+        MyList l = new MyList();
+        for (int i = 0; i < 10; i++)
+            l.put("key" + i, "value" + i);
+        l.removeHead();
+
+        assertEquals("key8", l.getHeadKey());
+        assertEquals(false, l.contains("key9"));
+        assertEquals("value0", l.get("key0"));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package ru.spbau.mit.java.paradov;
+
+import java.util.function.BiConsumer;
+
+/**
+ * АВЛ-дерево пар ключ-значение. Ключи упорядочены сначала по hashCode(), затем по compareTo(),
+ * поэтому даже ключи с одинаковым hashCode() ищутся за логарифм.
+ * Используется хэш-таблицей вместо слишком длинного списка.
+ */
+public class MyTree implements Bucket {
+
+    /** Корень дерева. */
+    private Node root = null;
+
+    /** Количество элементов в дереве. */
+    private int size = 0;
+
+    /** Значение, замененное или удаленное последней операцией put или remove. */
+    private String lastOldValue;
+
+    /** Был ли ключ найден последней операцией put или remove. */
+    private boolean lastFound;
+
+    @Override
+    public boolean contains(String key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public String get(String key) {
+        Node node = find(key);
+        return node != null ? node.value : null;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        lastOldValue = null;
+        lastFound = false;
+        root = insert(root, key, value);
+        if (!lastFound)
+            size++;
+
+        return lastOldValue;
+    }
+
+    @Override
+    public String remove(String key) {
+        lastOldValue = null;
+        lastFound = false;
+        root = delete(root, key);
+        if (lastFound)
+            size--;
+
+        return lastOldValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, String> action) {
+        forEach(root, action);
+    }
+
+    private static void forEach(Node node, BiConsumer<String, String> action) {
+        if (node == null)
+            return;
+
+        forEach(node.left, action);
+        action.accept(node.key, node.value);
+        forEach(node.right, action);
+    }
+
+    /** Головной элемент дерева - его корень. */
+    @Override
+    public String getHeadKey() {
+        return root.key;
+    }
+
+    @Override
+    public String getHeadValue() {
+        return root.value;
+    }
+
+    @Override
+    public void removeHead() {
+        if (root != null)
+            remove(root.key);
+    }
+
+    /**
+     * Сравнивает ключи в порядке дерева.
+     *
+     * @return отрицательное число, ноль или положительное число, если a меньше, равен или больше b
+     */
+    private static int compare(String a, String b) {
+        int ha = a.hashCode();
+        int hb = b.hashCode();
+        if (ha != hb)
+            return ha < hb ? -1 : 1;
+
+        return a.compareTo(b);
+    }
+
+    private Node find(String key) {
+        Node cur = root;
+        while (cur != null) {
+            int cmp = compare(key, cur.key);
+            if (cmp == 0)
+                return cur;
+            cur = cmp < 0 ? cur.left : cur.right;
+        }
+
+        return null;
+    }
+
+    private Node insert(Node node, String key, String value) {
+        if (node == null)
+            return new Node(key, value);
+
+        int cmp = compare(key, node.key);
+        if (cmp == 0) {
+            lastFound = true;
+            lastOldValue = node.value;
+            node.value = value;
+            return node;
+        }
+
+        if (cmp < 0) {
+            node.left = insert(node.left, key, value);
+        } else {
+            node.right = insert(node.right, key, value);
+        }
+
+        return balance(node);
+    }
+
+    private Node delete(Node node, String key) {
+        if (node == null)
+            return null;
+
+        int cmp = compare(key, node.key);
+        if (cmp < 0) {
+            node.left = delete(node.left, key);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, key);
+        } else {
+            lastFound = true;
+            lastOldValue = node.value;
+
+            if (node.left == null)
+                return node.right;
+            if (node.right == null)
+                return node.left;
+
+            Node min = node.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            node.key = min.key;
+            node.value = min.value;
+            node.right = deleteMin(node.right);
+        }
+
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null)
+            return node.right;
+
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void updateHeight(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateHeight(node);
+        updateHeight(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateHeight(node);
+        updateHeight(right);
+        return right;
+    }
+
+    /**
+     * Восстанавливает баланс в вершине, у которой высоты поддеревьев отличаются не больше чем на 2.
+     *
+     * @return новый корень поддерева
+     */
+    private static Node balance(Node node) {
+        updateHeight(node);
+        int diff = height(node.left) - height(node.right);
+        if (diff > 1) {
+            if (height(node.left.left) < height(node.left.right))
+                node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (diff < -1) {
+            if (height(node.right.right) < height(node.right.left))
+                node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    /** Вершина дерева. */
+    private static class Node {
+        private Node left;
+        private Node right;
+        private int height = 1;
+
+        private String key;
+        private String value;
+
+        private Node(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyTreeTest {
+    /**
+     * Tests if put() inserts value in tree and returns old value on second put.
+     */
+    @Test
+    void testPutAndGet() {
+        MyTree t = new MyTree();
+
+        assertEquals(null, t.put("key", "value"));
+        assertEquals("value", t.put("key", "newValue"));
+        assertEquals("newValue", t.get("key"));
+        assertEquals(1, t.size());
+    }
+
+    /**
+     * Tests if remove() deletes only given key from tree with many elements.
+     */
+    @Test
+    void testRemoveAfterMultiplePuts() {
+        MyTree t = new MyTree();
+        for (int i = 0; i < 100; i++)
+            t.put("key" + i, "value" + i);
+
+        assertEquals("value50", t.remove("key50"));
+        assertEquals(null, t.remove("key50"));
+        assertEquals(false, t.contains("key50"));
+        assertEquals("value51", t.get("key51"));
+        assertEquals(99, t.size());
+    }
+
+    /**
+     * Tests if removeHead() drains the whole tree.
+     */
+    @Test
+    void testRemoveHeadDrainsTree() {
+        MyTree t = new MyTree();
+        for (int i = 0; i < 100; i++)
+            t.put("key" + i, "value" + i);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(true, t.contains(t.getHeadKey()));
+            t.removeHead();
+        }
+
+        assertEquals(0, t.size());
+    }
+}
@@ -0,0 +1,203 @@
+package ru.spbau.mit.java.paradov;
+
+/**
+ * Хэш-таблица с открытой адресацией и линейным пробированием.
+ * Ключи, значения и хэши ключей хранятся в трех параллельных массивах,
+ * поэтому на каждый элемент не создается ни одного дополнительного объекта.
+ */
+public class OpenHashTable {
+
+    /** Начальное количество ячеек в таблице (всегда степень двойки). */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Массив ключей; null означает пустую ячейку. */
+    private String[] keys;
+
+    /** Массив значений, values[i] соответствует keys[i]. */
+    private String[] values;
+
+    /** Закэшированные хэши ключей, hashes[i] соответствует keys[i]. */
+    private int[] hashes;
+
+    /** Количество элементов в таблице. */
+    private int numOfElements = 0;
+
+    /** Создает таблицу с 16 ячейками. */
+    public OpenHashTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Возвращает количество элементов в таблице.
+     *
+     * @return количество элементов в таблице
+     */
+    public int size() {
+        return numOfElements;
+    }
+
+    /**
+     * Проверяет, содержится ли элемент с ключом key в таблице.
+     *
+     * @param key ключ, который нужно найти
+     * @return true, если ключ найден, и false, если ключ не найден
+     */
+    public boolean contains(String key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Возвращает значение по ключу или null, если такого ключа нет.
+     *
+     * @param key ключ, который нужно найти
+     * @return значение по ключу или null, если такого ключа нет
+     */
+    public String get(String key) {
+        int index = find(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * Кладет в хеш-таблицу значение value по ключу key.
+     * Если таблица заполнена больше чем на 3/4, то перед вставкой
+     * количество ячеек увеличивается вдвое.
+     *
+     * @param key ключ, по которому кладется значение
+     * @param value значение
+     * @return значение, которое лежало по ключу или null, если такого ключа не было
+     */
+    public String put(String key, String value) {
+        if (4 * (numOfElements + 1) > 3 * keys.length)
+            resize(2 * keys.length);
+
+        int h = hash(key);
+        int mask = keys.length - 1;
+        int i = h & mask;
+        while (keys[i] != null) {
+            if (hashes[i] == h && key.equals(keys[i])) {
+                String oldVal = values[i];
+                values[i] = value;
+                return oldVal;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = h;
+        numOfElements++;
+
+        return null;
+    }
+
+    /**
+     * Удаляет из хэш-таблицы значение по заданному ключу.
+     * Вместо пометки ячейки как удаленной сдвигает назад следующие за ней элементы,
+     * так что цепочки пробирования не удлиняются со временем.
+     *
+     * @param key ключ, по которому удаляется значение
+     * @return удаленное значение, либо null, если ничего не было
+     */
+    public String remove(String key) {
+        int index = find(key);
+        if (index < 0)
+            return null;
+
+        String oldVal = values[index];
+        int mask = keys.length - 1;
+        int hole = index;
+        int i = (hole + 1) & mask;
+        while (keys[i] != null) {
+            int home = hashes[i] & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hashes[hole] = hashes[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[hole] = null;
+        values[hole] = null;
+        numOfElements--;
+
+        return oldVal;
+    }
+
+    /** Очищает хэш-таблицу. */
+    public void clear() {
+        allocate(keys.length);
+        numOfElements = 0;
+    }
+
+    /**
+     * Ищет ячейку, в которой лежит ключ key.
+     *
+     * @param key ключ, который нужно найти
+     * @return номер ячейки или -1, если ключа в таблице нет
+     */
+    private int find(String key) {
+        int h = hash(key);
+        int mask = keys.length - 1;
+        int i = h & mask;
+        while (keys[i] != null) {
+            if (hashes[i] == h && key.equals(keys[i]))
+                return i;
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Меняет количество ячеек на заданное и перекладывает все элементы туда.
+     * Хэши ключей не пересчитываются, а берутся из кэша.
+     *
+     * @param newCapacity новое количество ячеек (степень двойки)
+     */
+    private void resize(int newCapacity) {
+        String[] oldKeys = keys;
+        String[] oldValues = values;
+        int[] oldHashes = hashes;
+
+        allocate(newCapacity);
+        int mask = newCapacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == null)
+                continue;
+
+            int i = oldHashes[j] & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+            hashes[i] = oldHashes[j];
+        }
+    }
+
+    /**
+     * Создает пустые массивы заданного размера.
+     *
+     * @param capacity количество ячеек
+     */
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new String[capacity];
+        hashes = new int[capacity];
+    }
+
+    /**
+     * Функция, вычисляющая хэш строки. Старшие биты подмешиваются к младшим,
+     * так как номер ячейки берется по маске младших битов.
+     *
+     * @param key строка, хэш которой нужен
+     * @return перемешанный хэш строки key
+     */
+    private int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,133 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenHashTableTest {
+    @Test
+    void testSizeOfEmptyTableIsZero() {
+        OpenHashTable h = new OpenHashTable();
+
+        assertEquals(0, h.size());
+    }
+
+    /**
+     * Tests if put() really puts element into hash-table.
+     */
+    @Test
+    void testPutAddsRightElement() {
+        OpenHashTable h = new OpenHashTable();
+        h.put("key", "value");
+
+        assertEquals(true, h.contains("key"));
+        assertEquals("value", h.get("key"));
+    }
+
+    /**
+     * Tests put() with key that was already used returns right value and does not change size.
+     */
+    @Test
+    void testPutCollisionReturnsRightValue() {
+        OpenHashTable h = new OpenHashTable();
+        for (int i = 0; i < 10; i++){
+            h.put("key" + i, "value" + i);
+        }
+
+        assertEquals("value5", h.put("key5", "newValue5"));
+        assertEquals("newValue5", h.get("key5"));
+        assertEquals(10, h.size());
+    }
+
+    /**
+     * Tests if remove() returns right value and decreases size.
+     */
+    @Test
+    void testRemoveReturnsRightValue() {
+        OpenHashTable h = new OpenHashTable();
+        h.put("key", "value");
+
+        assertEquals("value", h.remove("key"));
+        assertEquals(null, h.remove("key"));
+        assertEquals(0, h.size());
+    }
+
+    /**
+     * Tests if remove() keeps colliding keys reachable.
+     * Keys in this test have the same hashCode() % 16.
+     */
+    @Test
+    void testRemoveWithCollisions() {
+        OpenHashTable h = new OpenHashTable();
+        h.put("kem5", "value1");
+        h.put("kel4", "value2");
+        h.put("kex0", "value3");
+        h.put("key1", "value4");
+        h.put("kez2", "value5");
+        h.remove("kel4");
+
+        assertEquals(4, h.size());
+        assertEquals(false, h.contains("kel4"));
+        assertEquals("value1", h.get("kem5"));
+        assertEquals("value3", h.get("kex0"));
+        assertEquals("value4", h.get("key1"));
+        assertEquals("value5", h.get("kez2"));
+    }
+
+    /**
+     * Tests if get() works correctly after resizing hash-table.
+     */
+    @Test
+    void testGetAfterMultiplePutsWithResize() {
+        OpenHashTable h = new OpenHashTable();
+        for (int i = 0; i < 1000; i++){
+            h.put("key" + i, "value" + i);
+        }
+
+        assertEquals(1000, h.size());
+        assertEquals("value513", h.get("key513"));
+    }
+
+    /**
+     * Tests if size after clear() is 0 and table is still usable.
+     */
+    @Test
+    void testClear() {
+        OpenHashTable h = new OpenHashTable();
+        for (int i = 0; i < 100; i++){
+            h.put("key" + i, "value" + i);
+        }
+        h.clear();
+
+        assertEquals(0, h.size());
+        assertEquals(false, h.contains("key5"));
+        h.put("key5", "value5");
+        assertEquals("value5", h.get("key5"));
+    }
+
+    /**
+     * Tests random sequence of operations against java.util.HashMap.
+     */
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        OpenHashTable h = new OpenHashTable();
+        HashMap<String, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String key = "key" + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), h.remove(key));
+            } else {
+                assertEquals(expected.put(key, "value" + i), h.put(key, "value" + i));
+            }
+        }
+
+        assertEquals(expected.size(), h.size());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(expected.get("key" + i), h.get("key" + i));
+        }
+    }
+}
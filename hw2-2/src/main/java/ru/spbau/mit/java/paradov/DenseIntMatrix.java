@@ -0,0 +1,272 @@
+package ru.spbau.mit.java.paradov;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static java.util.Arrays.sort;
+
+/**
+ * Matrix of ints stored in one array row by row, so neighbouring rows are neighbours in memory.
+ * Transpose, column sort and multiplication are split into tiles that fit in cache
+ * and run on the common ForkJoinPool.
+ */
+public class DenseIntMatrix {
+    /** Side of square tile for transpose. */
+    private static final int TRANSPOSE_TILE = 32;
+
+    /** Number of rows of result in task and of rows of right operand in tile for multiplication. */
+    private static final int MULTIPLY_TILE = 64;
+
+    /** Number of elements below which a task is not split anymore. */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    /** Number of rows. */
+    private final int rows;
+
+    /** Number of columns. */
+    private final int columns;
+
+    /** Elements, element (i, j) is data[i * columns + j]. */
+    private final int[] data;
+
+    /**
+     * Creates matrix of zeros.
+     * @param rows number of rows.
+     * @param columns number of columns.
+     * @throws IllegalArgumentException if sizes are negative or matrix has more than Integer.MAX_VALUE elements.
+     */
+    public DenseIntMatrix(int rows, int columns) {
+        if (rows < 0 || columns < 0 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid matrix size " + rows + "x" + columns + ".");
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.data = new int[rows * columns];
+    }
+
+    /**
+     * Copies jagged matrix.
+     * @param matrix matrix to copy, all its rows must have the same length.
+     * @return dense copy of matrix.
+     * @throws IllegalArgumentException if rows have different lengths.
+     */
+    public static DenseIntMatrix fromArray(int[][] matrix) {
+        int columns = matrix.length == 0 ? 0 : matrix[0].length;
+        DenseIntMatrix result = new DenseIntMatrix(matrix.length, columns);
+        for (int i = 0; i < matrix.length; i++) {
+            if (matrix[i].length != columns) {
+                throw new IllegalArgumentException("Rows of matrix have different lengths.");
+            }
+            System.arraycopy(matrix[i], 0, result.data, i * columns, columns);
+        }
+        return result;
+    }
+
+    /**
+     * Copies matrix to jagged array.
+     * @return array of rows.
+     */
+    public int[][] toArray() {
+        int[][] result = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            result[i] = new int[columns];
+            System.arraycopy(data, i * columns, result[i], 0, columns);
+        }
+        return result;
+    }
+
+    /**
+     * Copies matrix back to jagged array of the same size, so it can be used by old code in place.
+     * @param matrix array to write to.
+     * @throws IllegalArgumentException if sizes are different.
+     */
+    public void copyTo(int[][] matrix) {
+        if (matrix.length != rows) {
+            throw new IllegalArgumentException("Matrix has " + matrix.length + " rows instead of " + rows + ".");
+        }
+        for (int i = 0; i < rows; i++) {
+            if (matrix[i].length != columns) {
+                throw new IllegalArgumentException("Rows of matrix have different lengths.");
+            }
+            System.arraycopy(data, i * columns, matrix[i], 0, columns);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int get(int row, int column) {
+        checkIndices(row, column);
+        return data[row * columns + column];
+    }
+
+    public void set(int row, int column, int value) {
+        checkIndices(row, column);
+        data[row * columns + column] = value;
+    }
+
+    private void checkIndices(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + column + ") is outside of "
+                    + rows + "x" + columns + " matrix.");
+        }
+    }
+
+    /**
+     * Transposes matrix tile by tile, so both reading and writing stay inside a few cache lines.
+     * @return new transposed matrix.
+     */
+    public DenseIntMatrix transpose() {
+        DenseIntMatrix result = new DenseIntMatrix(columns, rows);
+        forRowsInParallel(TRANSPOSE_TILE, columns, (from, to) -> {
+            for (int jj = 0; jj < columns; jj += TRANSPOSE_TILE) {
+                int jEnd = Math.min(jj + TRANSPOSE_TILE, columns);
+                for (int i = from; i < to; i++) {
+                    for (int j = jj; j < jEnd; j++) {
+                        result.data[j * rows + i] = data[i * columns + j];
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sorts columns by their first element; columns with equal first elements keep their order.
+     * Permutation of columns is found by primitive sort of the first row, then rows are
+     * rearranged in parallel.
+     */
+    public void sortColumns() {
+        if (rows == 0) {
+            return;
+        }
+
+        long[] keys = new long[columns];
+        for (int j = 0; j < columns; j++) {
+            keys[j] = (long) data[j] << 32 | j;
+        }
+        sort(keys);
+
+        int[] permutation = new int[columns];
+        for (int j = 0; j < columns; j++) {
+            permutation[j] = (int) keys[j];
+        }
+
+        forRowsInParallel(1, columns, (from, to) -> {
+            int[] buffer = new int[columns];
+            for (int i = from; i < to; i++) {
+                int start = i * columns;
+                System.arraycopy(data, start, buffer, 0, columns);
+                for (int j = 0; j < columns; j++) {
+                    data[start + j] = buffer[permutation[j]];
+                }
+            }
+        });
+    }
+
+    /**
+     * Multiplies this matrix by other one. Blocks of rows are computed in parallel, and inside
+     * a block rows of other matrix are taken by tiles of MULTIPLY_TILE, so a tile is reused for
+     * every row of the block while it is in cache. Inner loop adds one row to another with equal
+     * indices in separate arrays, which lets JIT vectorize it, so the block of result is kept
+     * as separate rows, and every tile of other matrix is copied into rows of a buffer of the task
+     * right before it is used, so no copy of the whole other matrix is allocated.
+     * Overflow wraps around as in int arithmetic.
+     * @param other right operand.
+     * @return product of matrices.
+     * @throws IllegalArgumentException if number of columns of this matrix is not number of rows of other.
+     */
+    public DenseIntMatrix multiply(DenseIntMatrix other) {
+        if (columns != other.rows) {
+            throw new IllegalArgumentException("Can't multiply " + rows + "x" + columns + " matrix by "
+                    + other.rows + "x" + other.columns + " matrix.");
+        }
+
+        int n = other.columns;
+        int m = columns;
+        int[] left = data;
+        DenseIntMatrix result = new DenseIntMatrix(rows, n);
+        forRowsInParallel(MULTIPLY_TILE, (long) m * n, (from, to) -> {
+            int[][] productRows = new int[to - from][n];
+            int[][] tileRows = new int[Math.min(MULTIPLY_TILE, m)][n];
+            for (int kk = 0; kk < m; kk += MULTIPLY_TILE) {
+                int kEnd = Math.min(kk + MULTIPLY_TILE, m);
+                for (int k = kk; k < kEnd; k++) {
+                    System.arraycopy(other.data, k * n, tileRows[k - kk], 0, n);
+                }
+
+                for (int i = from; i < to; i++) {
+                    int[] productRow = productRows[i - from];
+                    for (int k = kk; k < kEnd; k++) {
+                        int a = left[i * m + k];
+                        int[] rightRow = tileRows[k - kk];
+                        for (int j = 0; j < n; j++) {
+                            productRow[j] += a * rightRow[j];
+                        }
+                    }
+                }
+            }
+
+            for (int i = from; i < to; i++) {
+                System.arraycopy(productRows[i - from], 0, result.data, i * n, n);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs action on all rows, splitting them into ranges which are processed in parallel.
+     * @param rowStep ranges start at multiples of rowStep.
+     * @param workPerRow how many elements action touches per row.
+     * @param action action on range of rows.
+     */
+    private void forRowsInParallel(int rowStep, long workPerRow, RowsAction action) {
+        ForkJoinPool.commonPool().invoke(new RowsTask(action, 0, rows, rowStep, workPerRow));
+    }
+
+    /** Action on range of rows from (inclusive) to to (exclusive). */
+    private interface RowsAction {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Task over a range of rows. It is split in halves, on a multiple of rowStep,
+     * while it touches more than SEQUENTIAL_THRESHOLD elements.
+     */
+    private static class RowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RowsAction action;
+        private final int from;
+        private final int to;
+        private final int rowStep;
+        private final long workPerRow;
+
+        RowsTask(RowsAction action, int from, int to, int rowStep, long workPerRow) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.rowStep = rowStep;
+            this.workPerRow = workPerRow;
+        }
+
+        @Override
+        protected void compute() {
+            int steps = (to - from + rowStep - 1) / rowStep;
+            if (steps < 2 || (long) (to - from) * workPerRow <= SEQUENTIAL_THRESHOLD) {
+                action.apply(from, to);
+                return;
+            }
+
+            int middle = from + steps / 2 * rowStep;
+            invokeAll(new RowsTask(action, from, middle, rowStep, workPerRow),
+                    new RowsTask(action, middle, to, rowStep, workPerRow));
+        }
+    }
+}
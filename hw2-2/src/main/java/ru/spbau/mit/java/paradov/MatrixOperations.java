@@ -1,6 +1,6 @@
 package ru.spbau.mit.java.paradov;
 
-import java.util.Comparator;
+import java.util.function.IntConsumer;
 
 import static java.util.Arrays.sort;
 
@@ -18,61 +18,136 @@ public class MatrixOperations {
      */
     public static String spiralOutput(final int[][] matrix){
         StringBuilder buf = new StringBuilder();
+        spiralOutput(matrix, x -> buf.append(x).append(' '));
+        return buf.toString();
+    }
+
+    /**
+     * Method walks in matrix in spiral from center (up - left - down - right),
+     * writing elements in given array. No strings and no boxed integers are created.
+     *
+     * @param matrix matrix to write in spiral order.
+     * @param result array where elements are written, its length must be at least n * n.
+     * @throws IllegalArgumentException if result is too short.
+     */
+    public static void spiralOutput(final int[][] matrix, final int[] result){
+        int n = matrix.length;
+        if (result.length < n * n) {
+            throw new IllegalArgumentException("Array of length " + result.length
+                    + " is too short for " + n + "x" + n + " matrix.");
+        }
+
+        int[] position = {0};
+        spiralOutput(matrix, x -> result[position[0]++] = x);
+    }
 
+    /**
+     * Method walks in matrix in spiral from center (up - left - down - right),
+     * passing elements to consumer.
+     *
+     * @param matrix matrix to walk in spiral order.
+     * @param consumer consumer which gets elements in spiral order.
+     */
+    public static void spiralOutput(final int[][] matrix, final IntConsumer consumer){
         int n = matrix.length;
         int center = (n - 1) / 2;
 
-        buf.append(matrix[center][center]);
-        buf.append(" ");
+        consumer.accept(matrix[center][center]);
 
         for (int l = 1; l < (n + 1) / 2; l++) {
+            int[] top = matrix[center - l];
             for (int i = 0; i < 2 * l; i++) {
-                buf.append(matrix[center - l][center - l + 1 + i]);
-                buf.append(" ");
+                consumer.accept(top[center - l + 1 + i]);
             }
 
             for (int i = 0; i < 2 * l; i++) {
-                buf.append(matrix[center - l + 1 + i][center + l]);
-                buf.append(" ");
+                consumer.accept(matrix[center - l + 1 + i][center + l]);
             }
 
+            int[] bottom = matrix[center + l];
             for (int i = 0; i < 2 * l; i++) {
-                buf.append(matrix[center + l][center + l - 1 - i]);
-                buf.append(" ");
+                consumer.accept(bottom[center + l - 1 - i]);
             }
 
             for (int i = 0; i < 2 * l; i++) {
-                buf.append(matrix[center + l - 1 - i][center - l]);
-                buf.append(" ");
+                consumer.accept(matrix[center + l - 1 - i][center - l]);
             }
         }
+    }
 
-        return buf.toString();
+    /**
+     * Method walks in dense matrix in spiral from center (up - left - down - right),
+     * passing elements to consumer, in the same order as for int[][].
+     *
+     * @param matrix square matrix to walk in spiral order.
+     * @param consumer consumer which gets elements in spiral order.
+     * @throws IllegalArgumentException if matrix is not square.
+     */
+    public static void spiralOutput(final DenseIntMatrix matrix, final IntConsumer consumer){
+        int n = matrix.getRows();
+        if (matrix.getColumns() != n) {
+            throw new IllegalArgumentException("Matrix is not square.");
+        }
+        int center = (n - 1) / 2;
+
+        consumer.accept(matrix.get(center, center));
+
+        for (int l = 1; l < (n + 1) / 2; l++) {
+            for (int i = 0; i < 2 * l; i++) {
+                consumer.accept(matrix.get(center - l, center - l + 1 + i));
+            }
+
+            for (int i = 0; i < 2 * l; i++) {
+                consumer.accept(matrix.get(center - l + 1 + i, center + l));
+            }
+
+            for (int i = 0; i < 2 * l; i++) {
+                consumer.accept(matrix.get(center + l, center + l - 1 - i));
+            }
+
+            for (int i = 0; i < 2 * l; i++) {
+                consumer.accept(matrix.get(center + l - 1 - i, center - l));
+            }
+        }
     }
 
     /**
-     * Method sorts matrix by first element of its column.
+     * Method sorts dense matrix by first element of its column, rearranging rows in parallel.
      * @param matrix - matrix to be sorted.
      */
-    public static void sortColumns(int[][] matrix){
-        transposeMatrix(matrix);
-        sort(matrix, Comparator.comparingInt(o -> o[0]));
-        transposeMatrix(matrix);
+    public static void sortColumns(DenseIntMatrix matrix){
+        matrix.sortColumns();
     }
 
     /**
-     * Function for transposing matrix. Used in sortColumns.
-     *
-     * @param matrix - matrix which we must transpose
+     * Method sorts matrix by first element of its column. Columns with equal first
+     * elements keep their order. Order of columns is found by sorting first row
+     * as primitive longs (element in high half, column index in low half),
+     * then every row is rearranged by this permutation in one pass.
+     * @param matrix - matrix to be sorted, all its rows must have the same length.
      */
-    private static void transposeMatrix(int[][] matrix){
-        int tmp;
-
-        for (int i = 0; i < matrix.length; i++){
-            for (int j = i + 1; j < matrix.length; j++){
-                tmp = matrix[i][j];
-                matrix[i][j] = matrix[j][i];
-                matrix[j][i] = tmp;
+    public static void sortColumns(int[][] matrix){
+        if (matrix.length == 0) {
+            return;
+        }
+
+        int m = matrix[0].length;
+        long[] keys = new long[m];
+        for (int j = 0; j < m; j++) {
+            keys[j] = (long) matrix[0][j] << 32 | j;
+        }
+        sort(keys);
+
+        int[] permutation = new int[m];
+        for (int j = 0; j < m; j++) {
+            permutation[j] = (int) keys[j];
+        }
+
+        int[] buffer = new int[m];
+        for (int[] row : matrix) {
+            System.arraycopy(row, 0, buffer, 0, m);
+            for (int j = 0; j < m; j++) {
+                row[j] = buffer[permutation[j]];
             }
         }
     }
@@ -0,0 +1,140 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Class for testing methods in DenseIntMatrix class.
+ */
+public class DenseIntMatrixTest {
+    /**
+     * Makes matrix of random numbers.
+     */
+    private static int[][] randomMatrix(Random random, int rows, int columns) {
+        int[][] matrix = new int[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                matrix[i][j] = random.nextInt(21) - 10;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests if fromArray and toArray keep elements.
+     */
+    @Test
+    public void testArrayAdapters() {
+        int[][] matrix = {{1, 2, 3}, {4, 5, 6}};
+        DenseIntMatrix dense = DenseIntMatrix.fromArray(matrix);
+
+        assertEquals(2, dense.getRows());
+        assertEquals(3, dense.getColumns());
+        assertEquals(6, dense.get(1, 2));
+        assertArrayEquals(matrix, dense.toArray());
+
+        dense.set(0, 0, 42);
+        int[][] copy = new int[2][3];
+        dense.copyTo(copy);
+        assertEquals(42, copy[0][0]);
+    }
+
+    /**
+     * Tests if fromArray refuses jagged matrix.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArrayRefusesJaggedMatrix() {
+        DenseIntMatrix.fromArray(new int[][] {{1, 2}, {3}});
+    }
+
+    /**
+     * Tests if get refuses index outside of matrix.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutsideOfMatrix() {
+        new DenseIntMatrix(2, 3).get(0, 3);
+    }
+
+    /**
+     * Tests if transpose works on rectangular matrices bigger than tile.
+     */
+    @Test
+    public void testTranspose() {
+        Random random = new Random(1);
+        int[][] matrix = randomMatrix(random, 300, 170);
+
+        int[][] transposed = DenseIntMatrix.fromArray(matrix).transpose().toArray();
+
+        assertEquals(170, transposed.length);
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 170; j++) {
+                assertEquals(matrix[i][j], transposed[j][i]);
+            }
+        }
+    }
+
+    /**
+     * Tests if sortColumns works as sortColumns of MatrixOperations.
+     */
+    @Test
+    public void testSortColumns() {
+        Random random = new Random(2);
+        int[][] matrix = randomMatrix(random, 400, 250);
+        DenseIntMatrix dense = DenseIntMatrix.fromArray(matrix);
+
+        MatrixOperations.sortColumns(matrix);
+        MatrixOperations.sortColumns(dense);
+
+        assertArrayEquals(matrix, dense.toArray());
+    }
+
+    /**
+     * Tests if multiply works as naive multiplication on matrices not divisible by tile size.
+     */
+    @Test
+    public void testMultiply() {
+        Random random = new Random(3);
+        int[][] a = randomMatrix(random, 130, 75);
+        int[][] b = randomMatrix(random, 75, 190);
+
+        int[][] product = DenseIntMatrix.fromArray(a).multiply(DenseIntMatrix.fromArray(b)).toArray();
+
+        for (int i = 0; i < 130; i++) {
+            for (int j = 0; j < 190; j++) {
+                int expected = 0;
+                for (int k = 0; k < 75; k++) {
+                    expected += a[i][k] * b[k][j];
+                }
+                assertEquals(expected, product[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Tests if multiply refuses matrices of wrong sizes.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiplyRefusesWrongSizes() {
+        new DenseIntMatrix(2, 3).multiply(new DenseIntMatrix(2, 3));
+    }
+
+    /**
+     * Tests if spiral output of dense matrix is the same as of int[][].
+     */
+    @Test
+    public void testSpiralOutput() {
+        int[][] matrix = randomMatrix(new Random(4), 9, 9);
+        List<Integer> expected = new ArrayList<>();
+        List<Integer> actual = new ArrayList<>();
+
+        MatrixOperations.spiralOutput(matrix, expected::add);
+        MatrixOperations.spiralOutput(DenseIntMatrix.fromArray(matrix), actual::add);
+
+        assertEquals(expected, actual);
+    }
+}
@@ -2,6 +2,12 @@ package ru.spbau.mit.java.paradov;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /**
@@ -74,4 +80,83 @@ public class MatrixOperationsTest {
         assertEquals(1, matrix[0][1]);
     }
 
+    @Test
+    /**
+     * Tests if SpiralOutput writes to array and consumer in the same order as to string.
+     */
+    public void testSpiralOutputToArrayAndConsumer() {
+        int[][] matrix = new int[7][7];
+
+        for (int i = 0; i < 7; i++){
+            for (int j = 0; j < 7; j++){
+                matrix[i][j] = i * 7 + j;
+            }
+        }
+
+        int[] array = new int[49];
+        MatrixOperations.spiralOutput(matrix, array);
+        List<Integer> consumed = new ArrayList<>();
+        MatrixOperations.spiralOutput(matrix, consumed::add);
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 49; i++) {
+            assertEquals(array[i], (int) consumed.get(i));
+            expected.append(array[i]).append(' ');
+        }
+        assertEquals(expected.toString(), MatrixOperations.spiralOutput(matrix));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    /**
+     * Tests if SpiralOutput refuses too short array.
+     */
+    public void testSpiralOutputToTooShortArray() {
+        MatrixOperations.spiralOutput(new int[3][3], new int[8]);
+    }
+
+    @Test
+    /**
+     * Tests if SortColumns keeps order of columns with equal first elements
+     * and works on rectangular matrices.
+     */
+    public void testSortColumnsIsStable() {
+        int[][] matrix = {
+                {3, 1, 3, -5, 1},
+                {0, 1, 2, 3, 4},
+        };
+
+        MatrixOperations.sortColumns(matrix);
+
+        assertArrayEquals(new int[] {-5, 1, 1, 3, 3}, matrix[0]);
+        assertArrayEquals(new int[] {3, 1, 4, 0, 2}, matrix[1]);
+    }
+
+    @Test
+    /**
+     * Tests if SortColumns works as sorting transposed matrix by stable sort on random matrices.
+     */
+    public void testSortColumnsOnRandomMatrices() {
+        Random random = new Random(5);
+        for (int test = 0; test < 50; test++) {
+            int n = 1 + random.nextInt(30);
+            int[][] matrix = new int[n][n];
+            int[][] transposed = new int[n][n];
+            for (int i = 0; i < n; i++){
+                for (int j = 0; j < n; j++){
+                    matrix[i][j] = random.nextInt(10) - 5;
+                    transposed[j][i] = matrix[i][j];
+                }
+            }
+
+            Arrays.sort(transposed, Comparator.comparingInt(o -> o[0]));
+            MatrixOperations.sortColumns(matrix);
+
+            for (int i = 0; i < n; i++){
+                for (int j = 0; j < n; j++){
+                    assertEquals(transposed[j][i], matrix[i][j]);
+                }
+            }
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package ru.spbau.mit.java.paradov;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe trie with the same operations as Trie. Nodes are immutable:
+ * a writer copies the nodes on the path of its word, builds a new root
+ * and publishes it with compareAndSet, retrying if another writer was first.
+ * Readers never block: they take the current root and walk a snapshot
+ * which is never changed, so all counters they see are consistent with each other.
+ * Children of a node are kept in arrays sorted by char, so copying a node is cheap.
+ */
+public class ConcurrentTrie {
+    /** Shared empty array of chars for nodes without children. */
+    private static final char[] NO_CHARS = new char[0];
+
+    /** Shared empty array for nodes without children. */
+    private static final Node[] NO_NODES = new Node[0];
+
+    /**
+     * An immutable element of trie. It contains information if word ends in here,
+     * how many words starts with prefix and children sorted by their chars.
+     */
+    private static final class Node {
+        /** Flag which says is there a word ending in this node. */
+        final boolean isTerminal;
+
+        /** Number of words starting with this prefix. */
+        final int startsWithPrefix;
+
+        /** Chars of edges to children, sorted ascending. */
+        final char[] chars;
+
+        /** Children, in the same order as chars. */
+        final Node[] children;
+
+        Node(boolean isTerminal, int startsWithPrefix, char[] chars, Node[] children) {
+            this.isTerminal = isTerminal;
+            this.startsWithPrefix = startsWithPrefix;
+            this.chars = chars;
+            this.children = children;
+        }
+
+        /**
+         * Finds index of child with given char.
+         * @return index of child, or (-(insertion point) - 1) if there is no such child
+         */
+        int findChild(char c) {
+            int low = 0;
+            int high = chars.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (chars[mid] < c) {
+                    low = mid + 1;
+                } else if (chars[mid] > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        Node getChild(char c) {
+            int index = findChild(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        /**
+         * Returns copy of node where child with char c is replaced by given one.
+         * @param c char of child
+         * @param child new child, or null to remove child
+         * @param delta how much startsWithPrefix changes
+         * @return new node
+         */
+        Node withChild(char c, Node child, int delta) {
+            int index = findChild(c);
+            int n = chars.length;
+            char[] newChars;
+            Node[] newChildren;
+
+            if (index >= 0 && child != null) {
+                newChars = chars;
+                newChildren = children.clone();
+                newChildren[index] = child;
+            } else if (index >= 0) {
+                newChars = new char[n - 1];
+                newChildren = new Node[n - 1];
+                System.arraycopy(chars, 0, newChars, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(chars, index + 1, newChars, index, n - index - 1);
+                System.arraycopy(children, index + 1, newChildren, index, n - index - 1);
+            } else {
+                int insertionPoint = -index - 1;
+                newChars = new char[n + 1];
+                newChildren = new Node[n + 1];
+                System.arraycopy(chars, 0, newChars, 0, insertionPoint);
+                System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+                newChars[insertionPoint] = c;
+                newChildren[insertionPoint] = child;
+                System.arraycopy(chars, insertionPoint, newChars, insertionPoint + 1, n - insertionPoint);
+                System.arraycopy(children, insertionPoint, newChildren, insertionPoint + 1, n - insertionPoint);
+            }
+
+            return new Node(isTerminal, startsWithPrefix + delta, newChars, newChildren);
+        }
+    }
+
+    /** Root of trie. In string language, root is equals to empty string. */
+    private final AtomicReference<Node> root = new AtomicReference<>(new Node(false, 0, NO_CHARS, NO_NODES));
+
+    /**
+     * Checks if string is in trie.
+     * @param element string to find in trie
+     * @return true, if element is in trie, false otherwise
+     */
+    public boolean contains(String element) {
+        Node node = find(root.get(), element);
+        return node != null && node.isTerminal;
+    }
+
+    /**
+     * Checks if string is in trie, and if it's not, adds it.
+     * @param element string to add in trie
+     * @return true, if string was not in trie, false otherwise
+     */
+    public boolean add(String element) {
+        int length = element.length();
+        Node[] path = new Node[length + 1];
+
+        while (true) {
+            Node oldRoot = root.get();
+            int depth = walk(oldRoot, element, path);
+            if (depth == length && path[length].isTerminal) {
+                return false;
+            }
+
+            Node updated;
+            if (depth == length) {
+                Node old = path[length];
+                updated = new Node(true, old.startsWithPrefix + 1, old.chars, old.children);
+            } else {
+                updated = new Node(true, 1, NO_CHARS, NO_NODES);
+                for (int i = length - 1; i > depth; i--) {
+                    updated = new Node(false, 1, new char[] {element.charAt(i)}, new Node[] {updated});
+                }
+                updated = path[depth].withChild(element.charAt(depth), updated, 1);
+            }
+            for (int i = depth - 1; i >= 0; i--) {
+                updated = path[i].withChild(element.charAt(i), updated, 1);
+            }
+
+            if (root.compareAndSet(oldRoot, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes element from trie. If element wasn't in, returns false.
+     * @param element string to be removed from trie.
+     * @return false, if element was not in trie
+     */
+    public boolean remove(String element) {
+        int length = element.length();
+        Node[] path = new Node[length + 1];
+
+        while (true) {
+            Node oldRoot = root.get();
+            if (walk(oldRoot, element, path) != length || !path[length].isTerminal) {
+                return false;
+            }
+
+            Node old = path[length];
+            Node updated = new Node(false, old.startsWithPrefix - 1, old.chars, old.children);
+            for (int i = length - 1; i >= 0; i--) {
+                if (updated.startsWithPrefix == 0) {
+                    updated = null;
+                }
+                updated = path[i].withChild(element.charAt(i), updated, -1);
+            }
+
+            if (root.compareAndSet(oldRoot, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns how many words is in trie.
+     * @return number of words in trie
+     */
+    public int size() {
+        return root.get().startsWithPrefix;
+    }
+
+    /**
+     * Returns how many words start with prefix.
+     * @param prefix string to find how many words start with it
+     * @return how many words start with prefix
+     */
+    public int howManyStartsWithPrefix(String prefix) {
+        Node node = find(root.get(), prefix);
+        return node != null ? node.startsWithPrefix : 0;
+    }
+
+    /**
+     * Finds node of prefix in a snapshot of trie.
+     * @return node, or null if no word starts with prefix
+     */
+    private static Node find(Node current, String prefix) {
+        for (int i = 0; i < prefix.length() && current != null; i++) {
+            current = current.getChild(prefix.charAt(i));
+        }
+        return current;
+    }
+
+    /**
+     * Walks from root along element and puts met nodes into path.
+     * @return length of the longest prefix of element which is in trie
+     */
+    private static int walk(Node current, String element, Node[] path) {
+        path[0] = current;
+        for (int i = 0; i < element.length(); i++) {
+            current = current.getChild(element.charAt(i));
+            if (current == null) {
+                return i;
+            }
+            path[i + 1] = current;
+        }
+        return element.length();
+    }
+}
@@ -0,0 +1,275 @@
+package ru.spbau.mit.java.paradov;
+
+import java.util.Arrays;
+
+/**
+ * Compact trie with path compression (radix tree). It has the same operations as Trie,
+ * but a chain of nodes with one child each is stored as a single node whose edge
+ * is labelled by a whole char[] instead of one Character.
+ * Children of a node are kept in arrays sorted by the first char of their labels
+ * and are found by binary search, so no Character is boxed and no HashMap is created.
+ */
+public class RadixTrie {
+    /** Shared empty array of first chars for nodes without children. */
+    private static final char[] NO_CHARS = new char[0];
+
+    /** Shared empty array for nodes without children. */
+    private static final Node[] NO_NODES = new Node[0];
+
+    /**
+     * An element of radix trie. It keeps the label of the edge leading to it,
+     * information if word ends in here, how many words are in its subtree
+     * and children sorted by the first char of their labels.
+     */
+    private static class Node {
+        /** Label of the edge from parent to this node. */
+        char[] label;
+
+        /** Flag which says is there a word ending in this node. */
+        boolean isTerminal = false;
+
+        /** Number of words in subtree of this node (words starting with this node's prefix). */
+        int startsWithPrefix = 0;
+
+        /** First chars of children's labels, sorted ascending. */
+        char[] firstChars = NO_CHARS;
+
+        /** Children, in the same order as firstChars. */
+        Node[] children = NO_NODES;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        /**
+         * Finds index of child whose label starts with given char.
+         * @param c first char of label
+         * @return index of child, or (-(insertion point) - 1) if there is no such child
+         */
+        int findChild(char c) {
+            int low = 0;
+            int high = firstChars.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (firstChars[mid] < c) {
+                    low = mid + 1;
+                } else if (firstChars[mid] > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        Node getChild(char c) {
+            int index = findChild(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void insertChild(int insertionPoint, Node child) {
+            int n = children.length;
+            char[] newFirstChars = new char[n + 1];
+            Node[] newChildren = new Node[n + 1];
+            System.arraycopy(firstChars, 0, newFirstChars, 0, insertionPoint);
+            System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+            newFirstChars[insertionPoint] = child.label[0];
+            newChildren[insertionPoint] = child;
+            System.arraycopy(firstChars, insertionPoint, newFirstChars, insertionPoint + 1, n - insertionPoint);
+            System.arraycopy(children, insertionPoint, newChildren, insertionPoint + 1, n - insertionPoint);
+            firstChars = newFirstChars;
+            children = newChildren;
+        }
+
+        void removeChild(int index) {
+            int n = children.length;
+            if (n == 1) {
+                firstChars = NO_CHARS;
+                children = NO_NODES;
+                return;
+            }
+
+            char[] newFirstChars = new char[n - 1];
+            Node[] newChildren = new Node[n - 1];
+            System.arraycopy(firstChars, 0, newFirstChars, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(firstChars, index + 1, newFirstChars, index, n - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, n - index - 1);
+            firstChars = newFirstChars;
+            children = newChildren;
+        }
+    }
+
+    /** Root of trie. Its label is empty. */
+    private Node root = new Node(NO_CHARS);
+
+    /**
+     * Checks if string is in trie.
+     * @param element string to find in trie
+     * @return true, if element is in trie, false otherwise
+     */
+    public boolean contains(String element) {
+        Node current = root;
+        int position = 0;
+
+        while (position < element.length()) {
+            current = current.getChild(element.charAt(position));
+            if (current == null || !labelMatches(current.label, element, position, current.label.length)) {
+                return false;
+            }
+            position += current.label.length;
+        }
+
+        return current.isTerminal;
+    }
+
+    /**
+     * Adds string to trie, if it is not there yet. Walks the path only once.
+     * @param element string to add in trie
+     * @return true, if string was not in trie, false otherwise
+     */
+    public boolean add(String element) {
+        return add(root, element, 0);
+    }
+
+    /**
+     * Removes element from trie. Nodes left without words are deleted,
+     * and nodes left with a single child are merged with it.
+     * @param element string to be removed from trie.
+     * @return false, if element was not in trie
+     */
+    public boolean remove(String element) {
+        return remove(root, element, 0);
+    }
+
+    /**
+     * Returns how many words is in trie.
+     * @return number of words in trie
+     */
+    public int size() {
+        return root.startsWithPrefix;
+    }
+
+    /**
+     * Returns how many words start with prefix.
+     * @param prefix string to find how many words start with it
+     * @return how many words start with prefix
+     */
+    public int howManyStartsWithPrefix(String prefix) {
+        Node current = root;
+        int position = 0;
+
+        while (position < prefix.length()) {
+            current = current.getChild(prefix.charAt(position));
+            if (current == null) {
+                return 0;
+            }
+
+            int length = Math.min(current.label.length, prefix.length() - position);
+            if (!labelMatches(current.label, prefix, position, length)) {
+                return 0;
+            }
+            position += length;
+        }
+
+        return current.startsWithPrefix;
+    }
+
+    private static boolean add(Node node, String element, int position) {
+        if (position == element.length()) {
+            if (node.isTerminal) {
+                return false;
+            }
+            node.isTerminal = true;
+            node.startsWithPrefix++;
+            return true;
+        }
+
+        int index = node.findChild(element.charAt(position));
+        if (index < 0) {
+            Node leaf = new Node(element.substring(position).toCharArray());
+            leaf.isTerminal = true;
+            leaf.startsWithPrefix = 1;
+            node.insertChild(-index - 1, leaf);
+            node.startsWithPrefix++;
+            return true;
+        }
+
+        Node child = node.children[index];
+        int common = commonPrefixLength(child.label, element, position);
+        if (common < child.label.length) {
+            Node middle = new Node(Arrays.copyOf(child.label, common));
+            child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+            middle.startsWithPrefix = child.startsWithPrefix;
+            middle.firstChars = new char[] {child.label[0]};
+            middle.children = new Node[] {child};
+            node.children[index] = middle;
+            child = middle;
+        }
+
+        if (add(child, element, position + common)) {
+            node.startsWithPrefix++;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean remove(Node node, String element, int position) {
+        if (position == element.length()) {
+            if (!node.isTerminal) {
+                return false;
+            }
+            node.isTerminal = false;
+            node.startsWithPrefix--;
+            return true;
+        }
+
+        int index = node.findChild(element.charAt(position));
+        if (index < 0) {
+            return false;
+        }
+
+        Node child = node.children[index];
+        if (!labelMatches(child.label, element, position, child.label.length)
+                || !remove(child, element, position + child.label.length)) {
+            return false;
+        }
+
+        node.startsWithPrefix--;
+        if (child.startsWithPrefix == 0) {
+            node.removeChild(index);
+        } else if (!child.isTerminal && child.children.length == 1) {
+            Node grandchild = child.children[0];
+            char[] label = new char[child.label.length + grandchild.label.length];
+            System.arraycopy(child.label, 0, label, 0, child.label.length);
+            System.arraycopy(grandchild.label, 0, label, child.label.length, grandchild.label.length);
+            grandchild.label = label;
+            node.children[index] = grandchild;
+        }
+        return true;
+    }
+
+    /** Checks if first length chars of label are equal to chars of s starting from position. */
+    private static boolean labelMatches(char[] label, String s, int position, int length) {
+        if (s.length() - position < length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (label[i] != s.charAt(position + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns length of the longest common prefix of label and suffix of s starting from position. */
+    private static int commonPrefixLength(char[] label, String s, int position) {
+        int length = Math.min(label.length, s.length() - position);
+        int i = 0;
+        while (i < length && label[i] == s.charAt(position + i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -1,20 +1,37 @@
 package ru.spbau.mit.java.paradov;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
- * Class realizes trie and implements Serializable interface,
- * which allows to put strings from InputStream into trie
- * and get all strings from it to OutputStream.
+ * Class realizes trie, which can put strings from InputStream into trie
+ * and get all strings from it to OutputStream in compact binary format.
+ * Trie also counts how many times every word was added (its frequency),
+ * so it can return the most frequent completions of a prefix.
  */
-public class Trie implements Serializable {
+public class Trie {
     /**
      * An element of trie. It contains information if word ends in here,
      * how many words starts with prefix, links to children nodes and
      * getters and setters for easier work with HashMap of children.
      */
-    private class Node implements Serializable {
+    private class Node {
         /** Flag which says is there a word ending in this node. */
         boolean isTerminal = false;
 
@@ -24,6 +41,12 @@ public class Trie implements Serializable {
         /** Number of words starting with this prefix. */
         int startsWithPrefix = 0;
 
+        /** How many times the word ending in here was added, 0 if there is no such word. */
+        int frequency = 0;
+
+        /** Maximal frequency of words starting with this prefix. */
+        int maxFrequency = 0;
+
         Node getChild(Character c){
             return children.get(c);
         }
@@ -44,6 +67,80 @@ public class Trie implements Serializable {
     /** Root of trie. In string language, root is equals to empty string. */
     private Node root = new Node();
 
+    /** Number of changes of the set of words, used by iterators to fail fast. */
+    private int modCount = 0;
+
+    /** Magic number at the start of serialized trie: "TRIE". */
+    private static final int MAGIC = 0x54524945;
+
+    /** Version of serialization format. Version 1 had no frequencies. */
+    private static final byte VERSION = 2;
+
+    /** Size of buffer used by serialize() and deserialize(). */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Builds trie from words in lexicographic order in one pass, without walking
+     * the path of every word twice like add() does. Counters of every node are set
+     * when all words starting with its prefix have been read. A word repeated n times
+     * gets frequency n, as if it was added n times.
+     * @param words iterator over words sorted by String.compareTo
+     * @return trie with given words
+     * @throws IllegalArgumentException if words are not sorted
+     */
+    public static Trie buildFromSorted(Iterator<String> words) {
+        Trie trie = new Trie();
+        trie.root = trie.buildSubtree(words, 0);
+        return trie;
+    }
+
+    /**
+     * Same as buildFromSorted, but words with different first chars are built
+     * into separate subtrees of root in parallel.
+     * @param words list of words sorted by String.compareTo
+     * @return trie with given words
+     * @throws IllegalArgumentException if words are not sorted
+     */
+    public static Trie buildFromSortedInParallel(List<String> words) {
+        Trie trie = new Trie();
+        int emptyWords = 0;
+        while (emptyWords < words.size() && words.get(emptyWords).isEmpty()) {
+            emptyWords++;
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        for (int i = emptyWords; i < words.size(); i++) {
+            if (i == emptyWords || words.get(i).isEmpty()
+                    || words.get(i).charAt(0) != words.get(i - 1).charAt(0)) {
+                if (i > emptyWords && words.get(i - 1).compareTo(words.get(i)) > 0) {
+                    throw new IllegalArgumentException("Words are not sorted: \"" + words.get(i - 1)
+                            + "\" goes before \"" + words.get(i) + "\"");
+                }
+                starts.add(i);
+            }
+        }
+        starts.add(words.size());
+
+        List<Node> subtrees = IntStream.range(0, starts.size() - 1).parallel()
+                .mapToObj(i -> trie.buildSubtree(words.subList(starts.get(i), starts.get(i + 1)).iterator(), 1))
+                .collect(Collectors.toList());
+
+        Node root = trie.root;
+        if (emptyWords > 0) {
+            root.isTerminal = true;
+            root.frequency = emptyWords;
+            root.startsWithPrefix = 1;
+            root.maxFrequency = emptyWords;
+        }
+        for (int i = 0; i < subtrees.size(); i++) {
+            Node subtree = subtrees.get(i);
+            root.children.put(words.get(starts.get(i)).charAt(0), subtree);
+            root.startsWithPrefix += subtree.startsWithPrefix;
+            root.maxFrequency = Math.max(root.maxFrequency, subtree.maxFrequency);
+        }
+        return trie;
+    }
+
     /**
      * Checks if stirng is in trie.
      * @param element string to find in trie
@@ -64,15 +161,18 @@ public class Trie implements Serializable {
 
     /**
      * Checks if string is in trie, and if it's not, adds it.
+     * If it is, increases its frequency.
      * @param element string to add in trie
      * @return true, if string was not in trie, false otherwise
      */
     public boolean add(String element) {
         if (contains(element)) {
+            increaseFrequency(element);
             return false;
         }
 
         root.startsWithPrefix++;
+        modCount++;
         Node current = root;
 
         for (Character c : element.toCharArray()){
@@ -84,6 +184,7 @@ public class Trie implements Serializable {
         }
 
         current.isTerminal = true;
+        increaseFrequency(element);
         return true;
     }
 
@@ -98,7 +199,11 @@ public class Trie implements Serializable {
         }
 
         root.startsWithPrefix--;
+        modCount++;
         Node current = root;
+        Node[] path = new Node[element.length() + 1];
+        path[0] = root;
+        int depth = 0;
 
         for (Character c : element.toCharArray()){
             if (current.getChild(c).startsWithPrefix == 1) {
@@ -107,9 +212,14 @@ public class Trie implements Serializable {
                 current = current.getChild(c);
             }
             current.startsWithPrefix--;
+            path[++depth] = current;
         }
 
         current.isTerminal = false;
+        current.frequency = 0;
+        while (depth >= 0 && updateMaxFrequency(path[depth])) {
+            depth--;
+        }
         return true;
     }
 
@@ -140,31 +250,423 @@ public class Trie implements Serializable {
     }
 
     /**
-     * Puts trie into OutputStream with help of ObjectOutputStream.
+     * Returns lazy iterator over words starting with prefix. Words are found while iterating,
+     * no list of them is built. Iterator throws ConcurrentModificationException if words
+     * were added to or removed from trie after it was created; adding a word which is
+     * already in trie only changes its frequency and does not affect iterators.
+     * @param prefix string which returned words start with
+     * @return iterator over words starting with prefix, in no particular order
+     */
+    public Iterator<String> wordsWithPrefix(String prefix) {
+        return new PrefixIterator(prefix, find(prefix));
+    }
+
+    /**
+     * Returns k most frequent words starting with prefix. Visits only nodes whose subtrees
+     * contain a word at least as frequent as the k-th one, not the whole subtree of prefix.
+     * @param prefix string which returned words start with
+     * @param k how many words to return
+     * @return at most k words ordered by frequency, most frequent first;
+     * words with equal frequency come in no particular order
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<String> topK(String prefix, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative, got " + k);
+        }
+
+        List<String> result = new ArrayList<>();
+        Node start = find(prefix);
+        if (start == null || k == 0) {
+            return result;
+        }
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(prefix, start, start.maxFrequency));
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate candidate = queue.poll();
+            if (candidate.node == null) {
+                result.add(candidate.word);
+                continue;
+            }
+
+            Node node = candidate.node;
+            if (node.isTerminal) {
+                queue.add(new Candidate(candidate.word, null, node.frequency));
+            }
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                Node childNode = child.getValue();
+                queue.add(new Candidate(candidate.word + child.getKey(), childNode, childNode.maxFrequency));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Puts trie into OutputStream in compact binary format and closes the stream.
+     * The format is MAGIC, VERSION and then a preorder walk of nodes: every node is written
+     * as varint (startsWithPrefix * 2 + isTerminal), varint frequency if node is terminal
+     * and varint number of children, and every child is preceded by varint of its char.
      * @param out stream where we write trie to
-     * @throws IOException if something's wrong with creating ObjectOutputStream,
-     * or writing in it, or flushing and closing it
+     * @throws IOException if something's wrong with writing in stream, or flushing and closing it
      */
     public void serialize(OutputStream out) throws IOException {
-        ObjectOutputStream oos = new ObjectOutputStream(out);
-        oos.writeObject(this);
+        try (WritableByteChannel channel = Channels.newChannel(out)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.putInt(MAGIC);
+            buffer.put(VERSION);
+            writeNode(root, buffer, channel);
+
+            Deque<Map.Entry<Character, Node>> stack = new ArrayDeque<>(root.children.entrySet());
+            while (!stack.isEmpty()) {
+                Map.Entry<Character, Node> entry = stack.pop();
+                writeVarint(entry.getKey(), buffer, channel);
+                writeNode(entry.getValue(), buffer, channel);
+                for (Map.Entry<Character, Node> child : entry.getValue().children.entrySet()) {
+                    stack.push(child);
+                }
+            }
 
-        oos.flush();
-        oos.close();
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
     }
 
     /**
-     * Turns data from InputStream into new trie, replaces the old one.
+     * Turns data written by serialize() from InputStream into new trie, replaces the old one.
+     * Reads the stream in a single pass and closes it.
      * @param in stream from which we get data.
-     * @throws IOException if something's wrong with creating ObjectInputStream,
-     * reading from it or closing it.
+     * @throws IOException if something's wrong with reading from stream or closing it,
+     * or if data is not a trie of supported version.
      */
     public void deserialize(InputStream in) throws IOException {
-        try(ObjectInputStream ois = new ObjectInputStream(in)) {
-            Trie newTrie = (Trie) ois.readObject();
-            root = newTrie.root;
-        } catch (ClassNotFoundException e) {
-            System.out.println("Class wasn't found. Deserialization failed.");
+        try (ReadableByteChannel channel = Channels.newChannel(in)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.flip();
+            int magic = 0;
+            for (int i = 0; i < 4; i++) {
+                magic = magic << 8 | readByte(buffer, channel) & 0xff;
+            }
+            if (magic != MAGIC) {
+                throw new IOException("Not a trie stream");
+            }
+            byte version = readByte(buffer, channel);
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported trie stream version " + version);
+            }
+
+            Node newRoot = new Node();
+            Node[] path = {newRoot};
+            int[] childrenLeft = {readNode(newRoot, version, buffer, channel)};
+            int depth = 0;
+            while (depth >= 0) {
+                if (childrenLeft[depth] == 0) {
+                    Node node = path[depth];
+                    path[depth--] = null;
+                    if (depth >= 0) {
+                        path[depth].maxFrequency = Math.max(path[depth].maxFrequency, node.maxFrequency);
+                    }
+                    continue;
+                }
+                childrenLeft[depth]--;
+
+                long c = readVarint(buffer, channel);
+                if (c > Character.MAX_VALUE) {
+                    throw new IOException("Corrupted trie stream");
+                }
+                Node child = new Node();
+                path[depth].children.put((char) c, child);
+
+                if (++depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                    childrenLeft = Arrays.copyOf(childrenLeft, depth * 2);
+                }
+                path[depth] = child;
+                childrenLeft[depth] = readNode(child, version, buffer, channel);
+            }
+
+            root = newRoot;
+            modCount++;
+        }
+    }
+
+    /** Writes counter, terminal flag, frequency and number of children of node. */
+    private static void writeNode(Node node, ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        writeVarint((long) node.startsWithPrefix << 1 | (node.isTerminal ? 1 : 0), buffer, channel);
+        if (node.isTerminal) {
+            writeVarint(node.frequency, buffer, channel);
+        }
+        writeVarint(node.children.size(), buffer, channel);
+    }
+
+    /**
+     * Reads counter, terminal flag and frequency of node. Words from version 1 get frequency 1.
+     * @return number of children of node
+     */
+    private static int readNode(Node node, byte version, ByteBuffer buffer,
+                                ReadableByteChannel channel) throws IOException {
+        long header = readVarint(buffer, channel);
+        node.isTerminal = (header & 1) != 0;
+        long frequency = node.isTerminal ? 1 : 0;
+        if (node.isTerminal && version > 1) {
+            frequency = readVarint(buffer, channel);
+        }
+        long numOfChildren = readVarint(buffer, channel);
+        if (header >>> 1 > Integer.MAX_VALUE || frequency > Integer.MAX_VALUE
+                || numOfChildren > Character.MAX_VALUE + 1) {
+            throw new IOException("Corrupted trie stream");
+        }
+        node.startsWithPrefix = (int) (header >>> 1);
+        node.frequency = (int) frequency;
+        node.maxFrequency = node.frequency;
+        return (int) numOfChildren;
+    }
+
+    /** Writes non-negative value by 7 bits per byte, lowest bits first; flushes buffer to channel if it is full. */
+    private static void writeVarint(long value, ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        if (buffer.remaining() < 10) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) (value & 0x7f | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarint(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte(buffer, channel);
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted trie stream");
+    }
+
+    /** Reads next byte, refilling buffer from channel when it is empty. */
+    private static byte readByte(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        while (!buffer.hasRemaining()) {
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) {
+                throw new EOFException("Unexpected end of trie stream");
+            }
+        }
+        return buffer.get();
+    }
+
+    /**
+     * Builds subtree from sorted words which all have the same first skip chars.
+     * Keeps nodes of the previous word's path; a node is finished when a word
+     * not starting with its prefix comes, and then its counters go to its parent.
+     * @return root of subtree, which corresponds to the first skip chars of words
+     */
+    private Node buildSubtree(Iterator<String> words, int skip) {
+        Node[] path = {new Node()};
+        int depth = 0;
+        String previous = null;
+
+        while (words.hasNext()) {
+            String word = words.next();
+            int common = skip;
+            if (previous != null) {
+                if (previous.compareTo(word) > 0) {
+                    throw new IllegalArgumentException("Words are not sorted: \"" + previous
+                            + "\" goes before \"" + word + "\"");
+                }
+                while (common < previous.length() && common < word.length()
+                        && previous.charAt(common) == word.charAt(common)) {
+                    common++;
+                }
+            }
+
+            while (depth > common - skip) {
+                finishNode(path[depth - 1], path[depth]);
+                path[depth--] = null;
+            }
+            for (int i = skip + depth; i < word.length(); i++) {
+                Node child = new Node();
+                path[depth].children.put(word.charAt(i), child);
+                if (++depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth] = child;
+            }
+
+            Node node = path[depth];
+            if (!node.isTerminal) {
+                node.isTerminal = true;
+                node.startsWithPrefix++;
+            }
+            node.frequency++;
+            node.maxFrequency = Math.max(node.maxFrequency, node.frequency);
+            previous = word;
+        }
+
+        while (depth > 0) {
+            finishNode(path[depth - 1], path[depth]);
+            depth--;
+        }
+        return path[0];
+    }
+
+    /** Adds counters of finished child to its parent. */
+    private static void finishNode(Node parent, Node child) {
+        parent.startsWithPrefix += child.startsWithPrefix;
+        parent.maxFrequency = Math.max(parent.maxFrequency, child.maxFrequency);
+    }
+
+    /**
+     * Finds node of prefix.
+     * @return node, or null if no word starts with prefix
+     */
+    private Node find(String prefix) {
+        Node current = root;
+
+        for (Character c : prefix.toCharArray()){
+            if (!current.hasChild(c)) {
+                return null;
+            }
+            current = current.getChild(c);
+        }
+
+        return current;
+    }
+
+    /** Increases frequency of word which is in trie and updates maximal frequencies on its path. */
+    private void increaseFrequency(String element) {
+        Node word = find(element);
+        word.frequency++;
+
+        Node current = root;
+        current.maxFrequency = Math.max(current.maxFrequency, word.frequency);
+        for (Character c : element.toCharArray()){
+            current = current.getChild(c);
+            current.maxFrequency = Math.max(current.maxFrequency, word.frequency);
+        }
+    }
+
+    /**
+     * Recalculates maximal frequency of node from its own frequency and its children.
+     * @return true, if maximal frequency has changed
+     */
+    private static boolean updateMaxFrequency(Node node) {
+        int maxFrequency = node.frequency;
+        for (Node child : node.children.values()) {
+            maxFrequency = Math.max(maxFrequency, child.maxFrequency);
+        }
+
+        boolean changed = maxFrequency != node.maxFrequency;
+        node.maxFrequency = maxFrequency;
+        return changed;
+    }
+
+    /**
+     * Element of topK() search: either a node whose subtree is not explored yet,
+     * or a found word (then node is null). Candidates with greater frequency go first,
+     * and found words go before nodes with the same frequency.
+     */
+    private class Candidate implements Comparable<Candidate> {
+        final String word;
+        final Node node;
+        final int frequency;
+
+        Candidate(String word, Node node, int frequency) {
+            this.word = word;
+            this.node = node;
+            this.frequency = frequency;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (frequency != other.frequency) {
+                return Integer.compare(other.frequency, frequency);
+            }
+            return Boolean.compare(node != null, other.node != null);
+        }
+    }
+
+    /**
+     * Depth-first iterator over words in subtree of a node. Keeps a stack of iterators
+     * over children of nodes on current path and the word of current node.
+     */
+    private class PrefixIterator implements Iterator<String> {
+        private final StringBuilder word;
+        private final Deque<Iterator<Map.Entry<Character, Node>>> stack = new ArrayDeque<>();
+        private String next = null;
+        private final int expectedModCount = modCount;
+
+        PrefixIterator(String prefix, Node start) {
+            word = new StringBuilder(prefix);
+            if (start == null) {
+                return;
+            }
+
+            stack.push(start.children.entrySet().iterator());
+            if (start.isTerminal) {
+                next = prefix;
+            } else {
+                advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            checkForComodification();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            String result = next;
+            advance();
+            return result;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /** Goes to the next terminal node and puts its word into next. */
+        private void advance() {
+            next = null;
+            while (!stack.isEmpty()) {
+                Iterator<Map.Entry<Character, Node>> children = stack.peek();
+                if (!children.hasNext()) {
+                    stack.pop();
+                    if (!stack.isEmpty()) {
+                        word.setLength(word.length() - 1);
+                    }
+                    continue;
+                }
+
+                Map.Entry<Character, Node> child = children.next();
+                word.append(child.getKey().charValue());
+                stack.push(child.getValue().children.entrySet().iterator());
+                if (child.getValue().isTerminal) {
+                    next = word.toString();
+                    return;
+                }
+            }
         }
     }
 
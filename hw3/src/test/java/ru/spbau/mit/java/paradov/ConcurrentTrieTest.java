@@ -0,0 +1,126 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/** Tests public methods of class ConcurrentTrie. */
+public class ConcurrentTrieTest {
+    /** Tests add(), contains() and remove() with prefixes of each other and empty string. */
+    @Test
+    public void testAddContainsRemove() {
+        ConcurrentTrie t = new ConcurrentTrie();
+        assertEquals(true, t.add("hell"));
+        assertEquals(true, t.add("hello"));
+        assertEquals(true, t.add(""));
+        assertEquals(false, t.add("hell"));
+
+        assertEquals(3, t.size());
+        assertEquals(true, t.contains(""));
+        assertEquals(false, t.contains("hel"));
+        assertEquals(2, t.howManyStartsWithPrefix("hel"));
+
+        assertEquals(true, t.remove("hell"));
+        assertEquals(false, t.remove("hell"));
+        assertEquals(false, t.remove("he"));
+        assertEquals(true, t.contains("hello"));
+        assertEquals(1, t.howManyStartsWithPrefix("hell"));
+
+        assertEquals(true, t.remove("hello"));
+        assertEquals(true, t.remove(""));
+        assertEquals(0, t.size());
+        assertEquals(0, t.howManyStartsWithPrefix("h"));
+    }
+
+    /** Tests random sequence of operations against Trie. */
+    @Test
+    public void testRandomOperationsMatchTrie() {
+        ConcurrentTrie concurrentTrie = new ConcurrentTrie();
+        Trie trie = new Trie();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            String word = Integer.toString(random.nextInt(3000), 4);
+            if (random.nextInt(3) == 0) {
+                assertEquals(trie.remove(word), concurrentTrie.remove(word));
+            } else {
+                assertEquals(trie.add(word), concurrentTrie.add(word));
+            }
+            assertEquals(trie.size(), concurrentTrie.size());
+
+            String prefix = word.substring(0, random.nextInt(word.length() + 1));
+            assertEquals(trie.howManyStartsWithPrefix(prefix), concurrentTrie.howManyStartsWithPrefix(prefix));
+        }
+    }
+
+    /** Tests if concurrent writers lose no words and readers never see counters decrease. */
+    @Test
+    public void testConcurrentWritersAndReaders() throws InterruptedException {
+        final int writers = 4;
+        final int wordsPerWriter = 5000;
+        ConcurrentTrie t = new ConcurrentTrie();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            String prefix = "w" + w + "_";
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < wordsPerWriter; i++) {
+                        assertEquals(true, t.add(prefix + i));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    int lastSize = 0;
+                    int lastPrefix = 0;
+                    while (writing.get()) {
+                        int prefixCount = t.howManyStartsWithPrefix("w1_");
+                        int size = t.size();
+                        assertTrue(prefixCount >= lastPrefix);
+                        assertTrue(size >= lastSize);
+                        assertTrue(size >= prefixCount);
+                        lastSize = size;
+                        lastPrefix = prefixCount;
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads.subList(0, writers)) {
+            thread.join();
+        }
+        writing.set(false);
+        for (Thread thread : threads.subList(writers, threads.size())) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(writers * wordsPerWriter, t.size());
+        for (int w = 0; w < writers; w++) {
+            assertEquals(wordsPerWriter, t.howManyStartsWithPrefix("w" + w + "_"));
+            assertEquals(true, t.contains("w" + w + "_" + (wordsPerWriter - 1)));
+        }
+    }
+}
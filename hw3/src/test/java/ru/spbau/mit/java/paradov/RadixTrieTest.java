@@ -0,0 +1,111 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/** Tests public methods of class RadixTrie. */
+public class RadixTrieTest {
+    /** Tests if size of empty trie is 0. */
+    @Test
+    public void testSizeOfEmptyTrie() {
+        RadixTrie t = new RadixTrie();
+        assertEquals(0, t.size());
+    }
+
+    /** Tests if contains() distinguishes string from its prefixes and extensions. */
+    @Test
+    public void testContainsWithPrefixes() {
+        RadixTrie t = new RadixTrie();
+        t.add("string");
+
+        assertEquals(true, t.contains("string"));
+        assertEquals(false, t.contains("str"));
+        assertEquals(false, t.contains("strings"));
+        assertEquals(false, t.contains(""));
+    }
+
+    /** Tests if add() splits compressed edges and returns false for repeated string. */
+    @Test
+    public void testAddSplitsEdges() {
+        RadixTrie t = new RadixTrie();
+        assertEquals(true, t.add("string"));
+        assertEquals(true, t.add("str"));
+        assertEquals(true, t.add("strong"));
+        assertEquals(true, t.add(""));
+        assertEquals(false, t.add("str"));
+
+        assertEquals(4, t.size());
+        assertEquals(true, t.contains("str"));
+        assertEquals(true, t.contains("strong"));
+        assertEquals(true, t.contains(""));
+    }
+
+    /** Tests if remove() merges edges back and keeps other strings. */
+    @Test
+    public void testRemoveMergesEdges() {
+        RadixTrie t = new RadixTrie();
+        t.add("string");
+        t.add("str");
+        t.add("strong");
+
+        assertEquals(true, t.remove("str"));
+        assertEquals(false, t.remove("str"));
+        assertEquals(false, t.remove("stri"));
+        assertEquals(true, t.contains("string"));
+        assertEquals(true, t.contains("strong"));
+        assertEquals(2, t.size());
+    }
+
+    /** Tests howManyStartsWithPrefix() with prefixes ending inside an edge. */
+    @Test
+    public void testHowManyStartsWithPrefix() {
+        RadixTrie t = new RadixTrie();
+        t.add("string");
+        t.add("strong");
+        t.add("strength");
+        t.add("other");
+
+        assertEquals(4, t.howManyStartsWithPrefix(""));
+        assertEquals(3, t.howManyStartsWithPrefix("st"));
+        assertEquals(3, t.howManyStartsWithPrefix("str"));
+        assertEquals(1, t.howManyStartsWithPrefix("stro"));
+        assertEquals(1, t.howManyStartsWithPrefix("strin"));
+        assertEquals(0, t.howManyStartsWithPrefix("strx"));
+        assertEquals(0, t.howManyStartsWithPrefix("strings"));
+    }
+
+    /** Tests random sequence of operations against Trie. */
+    @Test
+    public void testRandomOperationsMatchTrie() {
+        RadixTrie radixTrie = new RadixTrie();
+        Trie trie = new Trie();
+        Set<String> prefixes = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                builder.append((char) ('a' + random.nextInt(3)));
+            }
+            String word = builder.toString();
+            prefixes.add(word);
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(trie.remove(word), radixTrie.remove(word));
+            } else {
+                assertEquals(trie.add(word), radixTrie.add(word));
+            }
+            assertEquals(trie.size(), radixTrie.size());
+        }
+
+        for (String prefix : prefixes) {
+            assertEquals(trie.contains(prefix), radixTrie.contains(prefix));
+            assertEquals(trie.howManyStartsWithPrefix(prefix), radixTrie.howManyStartsWithPrefix(prefix));
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.*;
 
 import static org.junit.Assert.*;
 
@@ -286,4 +287,275 @@ public class TrieTest {
         assertEquals(true, t.contains("infinity"));
     }
 
+    /** Tests if serialize() and deserialize() save prefix counters, empty word and long words. */
+    @Test
+    public void testSerializationSavesPrefixCounters() throws IOException {
+        Trie t = new Trie();
+        StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            longWord.append((char) ('a' + i % 26));
+        }
+        t.add("");
+        t.add("hello");
+        t.add("help");
+        t.add("\u044f\uffff");
+        t.add(longWord.toString());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        t.serialize(baos);
+        Trie copy = new Trie();
+        copy.deserialize(new ByteArrayInputStream(baos.toByteArray()));
+
+        assertEquals(5, copy.size());
+        assertEquals(true, copy.contains(""));
+        assertEquals(true, copy.contains("\u044f\uffff"));
+        assertEquals(true, copy.contains(longWord.toString()));
+        assertEquals(false, copy.contains("hel"));
+        assertEquals(2, copy.howManyStartsWithPrefix("hel"));
+        assertEquals(2, copy.howManyStartsWithPrefix("h"));
+        assertEquals(1, copy.howManyStartsWithPrefix("ab"));
+    }
+
+    /** Tests if deserialize() rejects data which is not a serialized trie. */
+    @Test(expected = IOException.class)
+    public void testDeserializationRejectsGarbage() throws IOException {
+        Trie t = new Trie();
+        t.deserialize(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5}));
+    }
+
+    /** Tests if deserialize() rejects truncated data. */
+    @Test(expected = IOException.class)
+    public void testDeserializationRejectsTruncatedData() throws IOException {
+        Trie t = new Trie();
+        t.add("truncated");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        t.serialize(baos);
+        byte[] data = baos.toByteArray();
+
+        t.deserialize(new ByteArrayInputStream(data, 0, data.length - 1));
+    }
+
+    /** Tests if wordsWithPrefix() returns exactly the words starting with prefix. */
+    @Test
+    public void testWordsWithPrefix() {
+        Trie t = new Trie();
+        t.add("hell");
+        t.add("hello");
+        t.add("help");
+        t.add("hall");
+        t.add("");
+
+        Set<String> words = new HashSet<>();
+        Iterator<String> iterator = t.wordsWithPrefix("hel");
+        while (iterator.hasNext()) {
+            assertEquals(true, words.add(iterator.next()));
+        }
+        assertEquals(new HashSet<>(Arrays.asList("hell", "hello", "help")), words);
+
+        words.clear();
+        t.wordsWithPrefix("").forEachRemaining(words::add);
+        assertEquals(5, words.size());
+        assertEquals(false, t.wordsWithPrefix("hex").hasNext());
+    }
+
+    /** Tests if exhausted iterator of wordsWithPrefix() throws NoSuchElementException. */
+    @Test(expected = NoSuchElementException.class)
+    public void testWordsWithPrefixExhausted() {
+        Trie t = new Trie();
+        t.add("word");
+
+        Iterator<String> iterator = t.wordsWithPrefix("wo");
+        assertEquals("word", iterator.next());
+        iterator.next();
+    }
+
+    /** Tests if iterator of wordsWithPrefix() fails after a word was removed from trie. */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testWordsWithPrefixFailsAfterRemove() {
+        Trie t = new Trie();
+        t.add("one");
+        t.add("two");
+
+        Iterator<String> iterator = t.wordsWithPrefix("");
+        String first = iterator.next();
+        t.remove(first.equals("one") ? "two" : "one");
+        iterator.next();
+    }
+
+    /** Tests if iterator of wordsWithPrefix() fails after a new word was added, but not after a repeated one. */
+    @Test
+    public void testWordsWithPrefixFailsAfterAdd() {
+        Trie t = new Trie();
+        t.add("one");
+        t.add("two");
+
+        Iterator<String> iterator = t.wordsWithPrefix("");
+        iterator.next();
+        t.add("one");
+        assertEquals(true, iterator.hasNext());
+
+        t.add("three");
+        try {
+            iterator.hasNext();
+            fail("Iterator didn't notice new word.");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    /** Tests if topK() orders words by frequency and respects k and prefix. */
+    @Test
+    public void testTopK() {
+        Trie t = new Trie();
+        addTimes(t, "car", 5);
+        addTimes(t, "cart", 2);
+        addTimes(t, "care", 9);
+        addTimes(t, "cat", 7);
+        addTimes(t, "dog", 100);
+
+        assertEquals(Arrays.asList("care", "cat", "car"), t.topK("ca", 3));
+        assertEquals(Arrays.asList("care", "car", "cart"), t.topK("car", 10));
+        assertEquals(Collections.singletonList("dog"), t.topK("", 1));
+        assertEquals(Collections.emptyList(), t.topK("cow", 5));
+        assertEquals(Collections.emptyList(), t.topK("ca", 0));
+        assertEquals(5, t.size());
+    }
+
+    /** Tests if topK() notices that the most frequent word was removed. */
+    @Test
+    public void testTopKAfterRemove() {
+        Trie t = new Trie();
+        addTimes(t, "car", 5);
+        addTimes(t, "care", 9);
+        addTimes(t, "cat", 7);
+
+        t.remove("care");
+        assertEquals(Arrays.asList("cat", "car"), t.topK("c", 2));
+
+        t.add("care");
+        assertEquals(Arrays.asList("cat", "car", "care"), t.topK("c", 3));
+    }
+
+    /** Tests if topK() agrees with sorting all words by frequency on random data. */
+    @Test
+    public void testTopKMatchesFullSort() {
+        Trie t = new Trie();
+        Map<String, Integer> frequencies = new HashMap<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            String word = Integer.toString(random.nextInt(500) * random.nextInt(500), 7);
+            if (random.nextInt(10) == 0) {
+                t.remove(word);
+                frequencies.remove(word);
+            } else {
+                t.add(word);
+                frequencies.merge(word, 1, Integer::sum);
+            }
+        }
+
+        for (String prefix : Arrays.asList("", "1", "23", "406")) {
+            List<String> top = t.topK(prefix, 10);
+            List<Integer> expected = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    expected.add(entry.getValue());
+                }
+            }
+            expected.sort(Collections.reverseOrder());
+
+            List<Integer> actual = new ArrayList<>();
+            for (String word : top) {
+                assertEquals(true, word.startsWith(prefix));
+                actual.add(frequencies.get(word));
+            }
+            assertEquals(expected.subList(0, Math.min(10, expected.size())), actual);
+        }
+    }
+
+    /** Tests if serialize() and deserialize() save frequencies. */
+    @Test
+    public void testSerializationSavesFrequencies() throws IOException {
+        Trie t = new Trie();
+        addTimes(t, "car", 5);
+        addTimes(t, "care", 9);
+        addTimes(t, "cat", 7);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        t.serialize(baos);
+        Trie copy = new Trie();
+        copy.deserialize(new ByteArrayInputStream(baos.toByteArray()));
+
+        assertEquals(Arrays.asList("care", "cat", "car"), copy.topK("", 3));
+    }
+
+    /** Tests if buildFromSorted() and buildFromSortedInParallel() build the same trie as add(). */
+    @Test
+    public void testBuildFromSortedMatchesAdd() {
+        Random random = new Random(3);
+        List<String> words = new ArrayList<>();
+        words.add("");
+        for (int i = 0; i < 5000; i++) {
+            words.add(Integer.toString(random.nextInt(2000), 5));
+        }
+        Collections.sort(words);
+
+        Trie expected = new Trie();
+        for (String word : words) {
+            expected.add(word);
+        }
+        Trie sequential = Trie.buildFromSorted(words.iterator());
+        Trie parallel = Trie.buildFromSortedInParallel(words);
+
+        for (Trie t : Arrays.asList(sequential, parallel)) {
+            assertEquals(expected.size(), t.size());
+            for (int i = 0; i < 3000; i++) {
+                String word = Integer.toString(i, 5);
+                assertEquals(expected.contains(word), t.contains(word));
+                assertEquals(expected.howManyStartsWithPrefix(word), t.howManyStartsWithPrefix(word));
+            }
+            assertEquals(true, t.contains(""));
+            assertEquals(expected.topK("1", 5).size(), t.topK("1", 5).size());
+        }
+    }
+
+    /** Tests if repeated words get frequencies and trie built from sorted words can be changed. */
+    @Test
+    public void testBuildFromSortedCountsRepeats() {
+        List<String> words = Arrays.asList("car", "car", "care", "care", "care", "cat");
+        for (Trie t : Arrays.asList(Trie.buildFromSorted(words.iterator()), Trie.buildFromSortedInParallel(words))) {
+            assertEquals(3, t.size());
+            assertEquals(Arrays.asList("care", "car", "cat"), t.topK("ca", 3));
+
+            assertEquals(true, t.add("cab"));
+            assertEquals(true, t.remove("care"));
+            assertEquals(3, t.howManyStartsWithPrefix("ca"));
+            assertEquals(Arrays.asList("car"), t.topK("c", 1));
+        }
+    }
+
+    /** Tests if buildFromSorted() of no words is an empty trie. */
+    @Test
+    public void testBuildFromSortedEmpty() {
+        assertEquals(0, Trie.buildFromSorted(Collections.<String>emptyIterator()).size());
+        assertEquals(0, Trie.buildFromSortedInParallel(Collections.<String>emptyList()).size());
+    }
+
+    /** Tests if buildFromSorted() rejects unsorted words. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildFromSortedRejectsUnsorted() {
+        Trie.buildFromSorted(Arrays.asList("abc", "abd", "abb").iterator());
+    }
+
+    /** Tests if buildFromSortedInParallel() rejects words unsorted by first char. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildFromSortedInParallelRejectsUnsorted() {
+        Trie.buildFromSortedInParallel(Arrays.asList("b", "", "a"));
+    }
+
+    private static void addTimes(Trie t, String word, int times) {
+        for (int i = 0; i < times; i++) {
+            t.add(word);
+        }
+    }
+
 }
\ No newline at end of file
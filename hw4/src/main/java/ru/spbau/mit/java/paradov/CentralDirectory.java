@@ -0,0 +1,134 @@
+package ru.spbau.mit.java.paradov;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipException;
+
+/**
+ * Reads positions of entries from the central directory of zip archive.
+ * ZipFile reads the same directory, but doesn't tell where data of entry is,
+ * and this is needed to copy stored entries straight from the archive file.
+ * Zip64 archives are not supported.
+ */
+class CentralDirectory {
+    /** Signature of end of central directory record. */
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    /** Signature of central directory file header. */
+    private static final int ENTRY_SIGNATURE = 0x02014b50;
+
+    /** Signature of local file header. */
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+    /** Size of end of central directory record without comment. */
+    private static final int END_SIZE = 22;
+
+    /** Size of central directory file header without name, extra field and comment. */
+    private static final int ENTRY_SIZE = 46;
+
+    /** Size of local file header without name and extra field. */
+    private static final int LOCAL_SIZE = 30;
+
+    /** Maximal length of archive comment. */
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+
+    /** Value of 4-byte field which means that real value is in zip64 extra field. */
+    private static final long ZIP64_MAGIC = 0xffffffffL;
+
+    private CentralDirectory() {
+    }
+
+    /**
+     * Reads offsets of local headers of all entries.
+     * @param channel archive file
+     * @return map from entry name to offset of its local header; entries whose offsets
+     * are in zip64 extra fields are missing; null if archive is zip64
+     * @throws IOException if channel can't be read or there is no valid central directory
+     */
+    static Map<String, Long> readLocalHeaderOffsets(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int tailSize = (int) Math.min(size, END_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = read(channel, size - tailSize, tailSize);
+
+        int end = tailSize - END_SIZE;
+        while (end >= 0 && tail.getInt(end) != END_SIGNATURE) {
+            end--;
+        }
+        if (end < 0) {
+            throw new ZipException("End of central directory not found.");
+        }
+
+        int numOfEntries = tail.getShort(end + 10) & 0xffff;
+        long directorySize = tail.getInt(end + 12) & 0xffffffffL;
+        long directoryOffset = tail.getInt(end + 16) & 0xffffffffL;
+        if (numOfEntries == 0xffff || directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC) {
+            return null;
+        }
+        if (directoryOffset + directorySize > size || directorySize > Integer.MAX_VALUE) {
+            throw new ZipException("Invalid central directory.");
+        }
+
+        ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+        Map<String, Long> offsets = new HashMap<>();
+        int position = 0;
+        for (int i = 0; i < numOfEntries; i++) {
+            if (position + ENTRY_SIZE > directory.limit() || directory.getInt(position) != ENTRY_SIGNATURE) {
+                throw new ZipException("Invalid central directory.");
+            }
+
+            int nameLength = directory.getShort(position + 28) & 0xffff;
+            int extraLength = directory.getShort(position + 30) & 0xffff;
+            int commentLength = directory.getShort(position + 32) & 0xffff;
+            long localOffset = directory.getInt(position + 42) & 0xffffffffL;
+            if (position + ENTRY_SIZE + nameLength > directory.limit()) {
+                throw new ZipException("Invalid central directory.");
+            }
+
+            byte[] name = new byte[nameLength];
+            directory.position(position + ENTRY_SIZE);
+            directory.get(name);
+            if (localOffset != ZIP64_MAGIC) {
+                offsets.putIfAbsent(new String(name, StandardCharsets.UTF_8), localOffset);
+            }
+            position += ENTRY_SIZE + nameLength + extraLength + commentLength;
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Finds where data of entry starts.
+     * @param channel archive file
+     * @param localHeaderOffset offset of local header of entry
+     * @return offset of the first byte of entry data
+     * @throws IOException if channel can't be read or there is no local header at given offset
+     */
+    static long dataOffset(FileChannel channel, long localHeaderOffset) throws IOException {
+        ByteBuffer header = read(channel, localHeaderOffset, LOCAL_SIZE);
+        if (header.getInt(0) != LOCAL_SIGNATURE) {
+            throw new ZipException("Invalid local file header.");
+        }
+
+        int nameLength = header.getShort(26) & 0xffff;
+        int extraLength = header.getShort(28) & 0xffff;
+        return localHeaderOffset + LOCAL_SIZE + nameLength + extraLength;
+    }
+
+    /** Reads length bytes from position of channel into little-endian buffer. */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of archive.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
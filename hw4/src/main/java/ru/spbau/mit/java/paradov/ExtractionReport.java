@@ -0,0 +1,52 @@
+package ru.spbau.mit.java.paradov;
+
+/**
+ * Result of extracting files from archives: how many archives were looked into,
+ * how many files were extracted from them and how many bytes these files take.
+ * Reports of separate archives are summed up with plus().
+ */
+public class ExtractionReport {
+    /** Report of doing nothing. */
+    public static final ExtractionReport EMPTY = new ExtractionReport(0, 0, 0);
+
+    /** Number of zip archives which were looked into. */
+    private final int archives;
+
+    /** Number of files extracted from archives. */
+    private final int files;
+
+    /** Total size of extracted files in bytes. */
+    private final long bytes;
+
+    public ExtractionReport(int archives, int files, long bytes) {
+        this.archives = archives;
+        this.files = files;
+        this.bytes = bytes;
+    }
+
+    public int getArchives() {
+        return archives;
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Sums this report with another one.
+     * @param other report to add
+     * @return report of both extractions
+     */
+    public ExtractionReport plus(ExtractionReport other) {
+        return new ExtractionReport(archives + other.archives, files + other.files, bytes + other.bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "extracted " + files + " files (" + bytes + " bytes) from " + archives + " archives";
+    }
+}
@@ -1,13 +1,33 @@
 package ru.spbau.mit.java.paradov;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 /**
@@ -17,7 +37,34 @@ import java.util.zip.ZipInputStream;
  */
 public class ZipOperation {
     /** Constant of buffer size for extracting file from archive. */
-    private static final int BUFFER_SIZE = 1024;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Buffers for extracting files, one per thread, so extraction doesn't allocate them every time. */
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    /** First four bytes of zip archive with at least one entry: signature of local file header "PK\3\4". */
+    private static final int ZIP_MAGIC = 0x504b0304;
+
+    /** How deep archives inside archives are looked into; deeper ones are treated as plain files. */
+    private static final int MAX_NESTING_DEPTH = 8;
+
+    /** Ways to read an archive. */
+    public enum Mode {
+        /**
+         * Reads archive from the start with ZipInputStream, inflating every entry
+         * on the way. Works with archives without central directory.
+         */
+        STREAM,
+
+        /**
+         * Reads only the central directory at the end of archive with ZipFile, matches
+         * entry names against the pattern and then seeks to matching entries, so data
+         * of other entries is never read. Entries stored without compression are copied
+         * from archive to output file with FileChannel.transferTo, without passing through
+         * Java heap. Files without central directory are treated as not zip archives.
+         */
+        CENTRAL_DIRECTORY
+    }
 
     /**
      * Finds zip files in given directory, find all files that are matching pattern
@@ -25,21 +72,149 @@ public class ZipOperation {
      * @param path directory where we looking for zip files
      * @param regex regular expression to match files we need
      * @param outputPath place where we put files we found
+     * @return how many archives were found and how many files were extracted from them
      * @throws IOException if given paths are not a directory,
      * or exception was thrown from findZipFiles() or unpackMatchingFiles
      */
-    public static void findAndUnzipMatchingFiles(String path, String regex, String outputPath)
+    public static ExtractionReport findAndUnzipMatchingFiles(String path, String regex, String outputPath)
             throws IOException {
         checkPaths(path, outputPath);
 
         Pattern p = Pattern.compile(regex);
 
+        ExtractionReport report = ExtractionReport.EMPTY;
         Vector<File> zipFiles = findZipFiles(path);
         for (File f : zipFiles) {
-            unpackMatchingFiles(f, p, outputPath);
+            report = report.plus(unpackMatchingFiles(f, p, outputPath));
+        }
+        return report;
+    }
+
+    /**
+     * Does the same as findAndUnzipMatchingFiles(path, regex, outputPath), but extracts
+     * files from different archives in parallel on a pool of given number of threads.
+     * Files are not probed in advance: every file is opened once, by the thread which
+     * extracts from it, and files which are not zip archives turn out to have no entries.
+     * All archives are processed even if some of them fail.
+     * @param path directory where we looking for zip files
+     * @param regex regular expression to match files we need
+     * @param outputPath place where we put files we found
+     * @param parallelism how many archives may be extracted at the same time
+     * @return how many archives were found and how many files were extracted from them
+     * @throws IOException if given paths are not a directory, or extraction from some archive failed;
+     * failures of other archives are added to it as suppressed exceptions
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public static ExtractionReport findAndUnzipMatchingFiles(String path, String regex, String outputPath,
+                                                             int parallelism) throws IOException {
+        return findAndUnzipMatchingFiles(path, regex, outputPath, parallelism, Mode.STREAM);
+    }
+
+    /**
+     * Does the same as findAndUnzipMatchingFiles(path, regex, outputPath, parallelism),
+     * reading archives in the given mode.
+     * @param path directory where we looking for zip files
+     * @param regex regular expression to match files we need
+     * @param outputPath place where we put files we found
+     * @param parallelism how many archives may be extracted at the same time
+     * @param mode how archives are read
+     * @return how many archives were found and how many files were extracted from them
+     * @throws IOException if given paths are not a directory, or extraction from some archive failed;
+     * failures of other archives are added to it as suppressed exceptions
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public static ExtractionReport findAndUnzipMatchingFiles(String path, String regex, String outputPath,
+                                                             int parallelism, Mode mode) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        checkPaths(path, outputPath);
+
+        Pattern p = Pattern.compile(regex);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<ExtractionReport>> results = new ArrayList<>();
+            for (File f : new File(path).listFiles()) {
+                if (!f.isDirectory()) {
+                    results.add(executor.submit(() -> mode == Mode.STREAM
+                            ? unpackMatchingFiles(f, p, outputPath)
+                            : unpackMatchingFilesRandomAccess(f, p, outputPath)));
+                }
+            }
+
+            ExtractionReport report = ExtractionReport.EMPTY;
+            IOException failure = null;
+            for (Future<ExtractionReport> result : results) {
+                try {
+                    report = report.plus(result.get());
+                } catch (ExecutionException e) {
+                    IOException cause = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for extraction.");
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    /**
+     * Finds zip files in given directory and all its subdirectories, and extracts files
+     * matching pattern from them. Files are visited one by one while walking the tree,
+     * and a file is opened as archive only if its name matches glob and its first four bytes
+     * are zip signature. Archives inside archives are looked into as well, without extracting
+     * them to disk; if name of inner archive matches pattern, it is extracted too.
+     * Output directory is skipped if it is inside the given one.
+     * @param path directory where we looking for zip files
+     * @param glob glob pattern which names of archives should match, for example "*.{zip,jar}" or "*"
+     * @param regex regular expression to match files we need
+     * @param outputPath place where we put files we found
+     * @return how many archives, inner ones included, were found and how many files were extracted
+     * @throws IOException if given paths are not a directory, if directory can't be walked
+     * or exception was thrown while extracting
+     */
+    public static ExtractionReport findAndUnzipMatchingFilesRecursively(String path, String glob, String regex,
+                                                                        String outputPath) throws IOException {
+        checkPaths(path, outputPath);
+
+        Pattern p = Pattern.compile(regex);
+        PathMatcher nameMatcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        Path output = Paths.get(outputPath).toAbsolutePath().normalize();
+
+        ExtractionReport report = ExtractionReport.EMPTY;
+        try (Stream<Path> files = Files.walk(Paths.get(path))) {
+            Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                if (Files.isRegularFile(file) && file.getFileName() != null
+                        && nameMatcher.matches(file.getFileName())
+                        && !file.toAbsolutePath().normalize().startsWith(output)
+                        && startsWithZipMagic(file)) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        report = report.plus(unpackRecursively(in, p, outputPath, 0));
+                    }
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return report;
+    }
+
     /**
      * Checks if given paths are valid paths to directories.
      * @param inPath path from where we are supposed to read
@@ -87,49 +262,239 @@ public class ZipOperation {
      * @param zipFile archive in which we are looking for files
      * @param p pattern files should match
      * @param path place to extract files
+     * @return report of extraction; it counts no archives if file is not a zip archive
      * @throws IOException if we extract file that already exists,
      * if we can't create FileInputStream or ZipInputStream
      * or if exception was thrown from extractZipFile()
      */
-    private static void unpackMatchingFiles(File zipFile, Pattern p, String path)
+    private static ExtractionReport unpackMatchingFiles(File zipFile, Pattern p, String path)
             throws IOException {
         try (FileInputStream fis = new FileInputStream(zipFile);
              ZipInputStream zis = new ZipInputStream(fis)) {
 
             ZipEntry entry = zis.getNextEntry();
+            if (entry == null) {
+                return ExtractionReport.EMPTY;
+            }
+
+            int files = 0;
+            long bytes = 0;
             while (entry != null) {
                 Matcher m = p.matcher(entry.getName());
                 if (m.matches()) {
-                    File newFile = new File(path + File.separator
-                            + Paths.get(entry.getName()).getFileName().toString());
-
                     if (!entry.getName().endsWith(File.separator)){
-                        if (!newFile.createNewFile()) {
-                            throw new FileAlreadyExistsException("File collision while extracting files from zip.");
-                        }
+                        File newFile = createOutputFile(entry, path);
                         extractFileFromZip(newFile, zis);
+                        files++;
+                        bytes += newFile.length();
                     }
                 }
                 entry = zis.getNextEntry();
             }
 
+            return new ExtractionReport(1, files, bytes);
+        }
+    }
+
+    /**
+     * Walks in zip stream and extracts all files matching the pattern. Entries which are
+     * zip archives themselves are walked in the same way, straight from the stream.
+     * Doesn't close the stream.
+     * @param in stream of zip archive
+     * @param p pattern files should match
+     * @param path place to extract files
+     * @param depth how many archives contain this one
+     * @return report of extraction, including inner archives
+     * @throws IOException if we extract file that already exists,
+     * if we can't read archive or if exception was thrown from extractZipFile()
+     */
+    private static ExtractionReport unpackRecursively(InputStream in, Pattern p, String path, int depth)
+            throws IOException {
+        ZipInputStream zis = new ZipInputStream(new FilterInputStream(in) {
+            @Override
+            public void close() {
+            }
+        });
+
+        try {
+            ExtractionReport report = new ExtractionReport(1, 0, 0);
+            ZipEntry entry = zis.getNextEntry();
+            while (entry != null) {
+                if (!entry.getName().endsWith(File.separator)) {
+                    boolean matches = p.matcher(entry.getName()).matches();
+                    PushbackInputStream data = new PushbackInputStream(zis, 4);
+                    boolean isZip = depth + 1 < MAX_NESTING_DEPTH && startsWithZipMagic(data);
+
+                    if (matches) {
+                        File newFile = createOutputFile(entry, path);
+                        extractFileFromZip(newFile, data);
+                        report = report.plus(new ExtractionReport(0, 1, newFile.length()));
+                        if (isZip) {
+                            try (InputStream extracted = new FileInputStream(newFile)) {
+                                report = report.plus(unpackRecursively(extracted, p, path, depth + 1));
+                            }
+                        }
+                    } else if (isZip) {
+                        report = report.plus(unpackRecursively(data, p, path, depth + 1));
+                    }
+                }
+                entry = zis.getNextEntry();
+            }
+
+            return report;
+        } finally {
+            zis.close();
+        }
+    }
+
+    /**
+     * Checks if file starts with zip signature, reading only its first four bytes.
+     * @param file file to check
+     * @return true, if file starts with zip signature
+     * @throws IOException if file can't be read
+     */
+    private static boolean startsWithZipMagic(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            int read = 0;
+            while (magic.hasRemaining() && read >= 0) {
+                read = channel.read(magic, magic.position());
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == ZIP_MAGIC;
+        }
+    }
+
+    /**
+     * Checks if stream starts with zip signature and puts read bytes back to stream.
+     * @param in stream to check
+     * @return true, if stream starts with zip signature
+     * @throws IOException if stream can't be read
+     */
+    private static boolean startsWithZipMagic(PushbackInputStream in) throws IOException {
+        byte[] magic = new byte[4];
+        int length = 0;
+        while (length < 4) {
+            int read = in.read(magic, length, 4 - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        in.unread(magic, 0, length);
+
+        return length == 4 && ByteBuffer.wrap(magic).getInt() == ZIP_MAGIC;
+    }
+
+    /**
+     * Extracts all files matching the pattern, reading only the central directory
+     * of archive and the data of matching entries. Stored entries are transferred
+     * between file channels, compressed ones are inflated through a buffer.
+     * @param zipFile archive in which we are looking for files
+     * @param p pattern files should match
+     * @param path place to extract files
+     * @return report of extraction; it counts no archives if file is not a zip archive
+     * @throws IOException if we extract file that already exists,
+     * if we can't read archive or if exception was thrown from extractZipFile()
+     */
+    private static ExtractionReport unpackMatchingFilesRandomAccess(File zipFile, Pattern p, String path)
+            throws IOException {
+        ZipFile zip;
+        try {
+            zip = new ZipFile(zipFile);
+        } catch (ZipException e) {
+            return ExtractionReport.EMPTY;
+        }
+
+        try (FileChannel channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ)) {
+            int files = 0;
+            long bytes = 0;
+            Map<String, Long> localHeaderOffsets = null;
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (p.matcher(entry.getName()).matches() && !entry.getName().endsWith(File.separator)) {
+                    File newFile = createOutputFile(entry, path);
+                    Long offset = null;
+                    if (entry.getMethod() == ZipEntry.STORED) {
+                        if (localHeaderOffsets == null) {
+                            Map<String, Long> offsets = CentralDirectory.readLocalHeaderOffsets(channel);
+                            localHeaderOffsets = offsets != null ? offsets : Collections.emptyMap();
+                        }
+                        offset = localHeaderOffsets.get(entry.getName());
+                    }
+
+                    if (offset != null) {
+                        transferStoredFile(newFile, channel,
+                                CentralDirectory.dataOffset(channel, offset), entry.getCompressedSize());
+                    } else {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            extractFileFromZip(newFile, in);
+                        }
+                    }
+                    files++;
+                    bytes += newFile.length();
+                }
+            }
+
+            return new ExtractionReport(1, files, bytes);
+        } finally {
+            zip.close();
+        }
+    }
+
+    /**
+     * Copies data of stored entry from archive to file without reading it into Java heap.
+     * @param newFile file to where we write data from archive
+     * @param archive channel of archive file
+     * @param position where data of entry starts in archive
+     * @param size size of entry data
+     * @throws IOException if can't read archive or write to file, or archive ends too early
+     */
+    private static void transferStoredFile(File newFile, FileChannel archive, long position, long size)
+            throws IOException {
+        try (FileChannel out = FileChannel.open(newFile.toPath(), StandardOpenOption.WRITE)) {
+            long transferred = 0;
+            while (transferred < size) {
+                long count = archive.transferTo(position + transferred, size - transferred, out);
+                if (count <= 0) {
+                    throw new EOFException("Unexpected end of archive.");
+                }
+                transferred += count;
+            }
+        }
+    }
+
+    /**
+     * Creates empty file in output directory with the name of archive entry.
+     * @param entry entry of archive which will be extracted to file
+     * @param path place to extract files
+     * @return new file
+     * @throws IOException if file already exists or can't be created
+     */
+    private static File createOutputFile(ZipEntry entry, String path) throws IOException {
+        File newFile = new File(path + File.separator
+                + Paths.get(entry.getName()).getFileName().toString());
+
+        if (!newFile.createNewFile()) {
+            throw new FileAlreadyExistsException("File collision while extracting files from zip.");
         }
+        return newFile;
     }
 
     /**
      * Writes all data from file in archive to file from outside.
      * @param newFile file to where we write data from archive
-     * @param zis stream of zip archive from where we read file
+     * @param zis stream of file in archive
      * @throws IOException if can't create FileOutputStream or can't write in it
      */
-    private static void extractFileFromZip(File newFile, ZipInputStream zis)
+    private static void extractFileFromZip(File newFile, InputStream zis)
             throws IOException {
         try (FileOutputStream fos = new FileOutputStream(newFile)) {
-            byte[] buff = new byte[BUFFER_SIZE];
+            byte[] buff = BUFFERS.get();
             int len = zis.read(buff);
             while (len != -1) {
                 fos.write(buff, 0, len);
-                len = zis.read();
+                len = zis.read(buff);
             }
         }
     }
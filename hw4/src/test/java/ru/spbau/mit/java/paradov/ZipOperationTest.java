@@ -2,10 +2,17 @@ package ru.spbau.mit.java.paradov;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.Assert.*;
 
@@ -205,4 +212,272 @@ public class ZipOperationTest {
         deleteRecursive(outputDir);
     }
 
+    /**
+     * Tests if the method reports how many archives were found and how much was extracted.
+     * @throws Exception if can't create temporary directory or can't delete it
+     * or if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test
+    public void testMethodReturnsReport() throws Exception {
+        File outputDir = new File(resourcesPath + "temp");
+        outputDir.mkdir();
+
+        ExtractionReport report = ZipOperation.findAndUnzipMatchingFiles(resourcesPath + "test7",
+                ".*file.*", outputDir.getPath());
+
+        assertEquals(3, report.getArchives());
+        assertEquals(3, report.getFiles());
+        assertEquals(48, report.getBytes());
+
+        deleteRecursive(outputDir);
+    }
+
+    /**
+     * Tests if the parallel method extracts the same files as the sequential one.
+     * @throws Exception if can't create temporary directory or can't delete it
+     * or if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test
+    public void testParallelMethodWorksCorrectlyWithManyFilesAndArchives() throws Exception {
+        File outputDir = new File(resourcesPath + "temp");
+        outputDir.mkdir();
+
+        ExtractionReport report = ZipOperation.findAndUnzipMatchingFiles(resourcesPath + "test7",
+                ".*file.*", outputDir.getPath(), 4);
+
+        String[] names = outputDir.list();
+        Arrays.sort(names);
+        assertArrayEquals(new String[] {"file1.1", "file2.1", "file3.1"}, names);
+        assertEquals(3, report.getArchives());
+        assertEquals(3, report.getFiles());
+        assertEquals(48, report.getBytes());
+
+        deleteRecursive(outputDir);
+    }
+
+    /**
+     * Tests if the parallel method throws exception of a failed archive.
+     * @throws Exception if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test(expected = FileAlreadyExistsException.class)
+    public void testParallelMethodThrowsExceptionWhenFileCollisionOccures() throws Exception {
+        ZipOperation.findAndUnzipMatchingFiles(resourcesPath + "test6",
+                ".*", resourcesPath + "test6", 2);
+    }
+
+    /**
+     * Tests if the parallel method rejects non-positive parallelism.
+     * @throws Exception if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelMethodRejectsZeroParallelism() throws Exception {
+        ZipOperation.findAndUnzipMatchingFiles(resourcesPath + "test1",
+                ".*", resourcesPath + "test1", 0);
+    }
+
+    /**
+     * Tests if reading the central directory extracts the same files as streaming.
+     * @throws Exception if can't create temporary directory or can't delete it
+     * or if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test
+    public void testCentralDirectoryModeWorksCorrectlyWithManyFilesAndArchives() throws Exception {
+        File outputDir = new File(resourcesPath + "temp");
+        outputDir.mkdir();
+
+        ExtractionReport report = ZipOperation.findAndUnzipMatchingFiles(resourcesPath + "test7",
+                ".*file.*", outputDir.getPath(), 2, ZipOperation.Mode.CENTRAL_DIRECTORY);
+
+        String[] names = outputDir.list();
+        Arrays.sort(names);
+        assertArrayEquals(new String[] {"file1.1", "file2.1", "file3.1"}, names);
+        assertEquals(48, report.getBytes());
+
+        deleteRecursive(outputDir);
+    }
+
+    /**
+     * Tests if reading the central directory doesn't change content of extracted file.
+     * @throws Exception if can't create temporary directory or can't delete it
+     * or if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test
+    public void testCentralDirectoryModeExtractsFileCorrectly() throws Exception {
+        File outputDir = new File(resourcesPath + "temp");
+        outputDir.mkdir();
+
+        ZipOperation.findAndUnzipMatchingFiles(resourcesPath + "test5",
+                ".*", outputDir.getPath(), 1, ZipOperation.Mode.CENTRAL_DIRECTORY);
+
+        File f = new File(resourcesPath + "temp" + SEP + "file");
+        byte[] buff = new byte[28];
+        try (FileInputStream fis = new FileInputStream(f)) {
+            fis.read(buff);
+        }
+        assertEquals("this file must be extracted\n", new String(buff));
+
+        deleteRecursive(outputDir);
+    }
+
+    /**
+     * Tests if reading the central directory skips files which are not archives.
+     * @throws Exception if can't create temporary directory or can't delete it
+     * or if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test
+    public void testCentralDirectoryModeSkipsNotArchives() throws Exception {
+        File outputDir = new File(resourcesPath + "temp");
+        outputDir.mkdir();
+
+        ExtractionReport report = ZipOperation.findAndUnzipMatchingFiles(resourcesPath + "test6",
+                ".*", outputDir.getPath(), 2, ZipOperation.Mode.CENTRAL_DIRECTORY);
+
+        assertEquals(1, report.getArchives());
+        assertEquals(1, report.getFiles());
+        assertEquals(true, new File(outputDir, "file_collision").exists());
+
+        deleteRecursive(outputDir);
+    }
+
+    /**
+     * Tests if files larger than buffer are extracted completely, both stored and compressed ones,
+     * in both modes.
+     * @throws Exception if can't create temporary files or can't delete them
+     * or if exception was thrown from findAndUnzipMatchingFiles()
+     */
+    @Test
+    public void testLargeStoredAndDeflatedFilesAreExtractedCompletely() throws Exception {
+        File archiveDir = new File(resourcesPath + "tempArchives");
+        archiveDir.mkdir();
+        byte[] stored = new byte[300000];
+        new Random(1).nextBytes(stored);
+        byte[] deflated = new byte[500000];
+        for (int i = 0; i < deflated.length; i++) {
+            deflated[i] = (byte) ('a' + i % 7);
+        }
+
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(new File(archiveDir, "big.zip")))) {
+            ZipEntry storedEntry = new ZipEntry("dir/stored");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            storedEntry.setCrc(crc.getValue());
+            zos.putNextEntry(storedEntry);
+            zos.write(stored);
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("deflated"));
+            zos.write(deflated);
+            zos.closeEntry();
+        }
+
+        for (ZipOperation.Mode mode : ZipOperation.Mode.values()) {
+            File outputDir = new File(resourcesPath + "temp");
+            outputDir.mkdir();
+
+            ExtractionReport report = ZipOperation.findAndUnzipMatchingFiles(archiveDir.getPath(),
+                    ".*", outputDir.getPath(), 1, mode);
+
+            assertEquals(2, report.getFiles());
+            assertEquals(stored.length + deflated.length, report.getBytes());
+            assertArrayEquals(stored, Files.readAllBytes(new File(outputDir, "stored").toPath()));
+            assertArrayEquals(deflated, Files.readAllBytes(new File(outputDir, "deflated").toPath()));
+
+            deleteRecursive(outputDir);
+        }
+
+        deleteRecursive(archiveDir);
+    }
+
+    /**
+     * Tests if the recursive method looks inside the directories in given one.
+     * @throws Exception if can't create temporary directory or can't delete it
+     * or if exception was thrown from findAndUnzipMatchingFilesRecursively()
+     */
+    @Test
+    public void testRecursiveMethodLooksInsideDirectories() throws Exception {
+        File outputDir = new File(resourcesPath + "temp");
+        outputDir.mkdir();
+
+        ExtractionReport report = ZipOperation.findAndUnzipMatchingFilesRecursively(resourcesPath + "test3",
+                "*", "file.*", outputDir.getPath());
+
+        String[] names = outputDir.list();
+        Arrays.sort(names);
+        assertArrayEquals(new String[] {"file_inside_zip", "file_inside_zip2"}, names);
+        assertEquals(2, report.getArchives());
+
+        deleteRecursive(outputDir);
+    }
+
+    /**
+     * Tests if the recursive method opens only files whose names match glob.
+     * @throws Exception if can't create temporary directory or can't delete it
+     * or if exception was thrown from findAndUnzipMatchingFilesRecursively()
+     */
+    @Test
+    public void testRecursiveMethodFiltersNamesByGlob() throws Exception {
+        File outputDir = new File(resourcesPath + "temp");
+        outputDir.mkdir();
+
+        ExtractionReport report = ZipOperation.findAndUnzipMatchingFilesRecursively(resourcesPath + "test3",
+                "*.zip", ".*", outputDir.getPath());
+
+        assertArrayEquals(new String[] {"file_inside_zip"}, outputDir.list());
+        assertEquals(1, report.getArchives());
+
+        deleteRecursive(outputDir);
+    }
+
+    /**
+     * Tests if the recursive method extracts files from archives inside archives,
+     * and extracts inner archive itself if its name matches, and skips output directory.
+     * @throws Exception if can't create temporary files or can't delete them
+     * or if exception was thrown from findAndUnzipMatchingFilesRecursively()
+     */
+    @Test
+    public void testRecursiveMethodLooksInsideNestedArchives() throws Exception {
+        File archiveDir = new File(resourcesPath + "tempArchives");
+        archiveDir.mkdir();
+        File outputDir = new File(archiveDir, "output");
+        outputDir.mkdir();
+
+        byte[] innermost = zipOf("deep/file_deep", "deepest file\n".getBytes());
+        byte[] inner = zipOf("inner.zip", innermost);
+        try (FileOutputStream fos = new FileOutputStream(new File(archiveDir, "outer.zip"))) {
+            fos.write(zipOf("dir/middle.zip", inner));
+        }
+
+        ExtractionReport report = ZipOperation.findAndUnzipMatchingFilesRecursively(archiveDir.getPath(),
+                "*", ".*file.*|inner\\.zip", outputDir.getPath());
+
+        String[] names = outputDir.list();
+        Arrays.sort(names);
+        assertArrayEquals(new String[] {"file_deep", "inner.zip"}, names);
+        assertArrayEquals("deepest file\n".getBytes(), Files.readAllBytes(new File(outputDir, "file_deep").toPath()));
+        assertArrayEquals(innermost, Files.readAllBytes(new File(outputDir, "inner.zip").toPath()));
+        assertEquals(3, report.getArchives());
+        assertEquals(2, report.getFiles());
+
+        deleteRecursive(archiveDir);
+    }
+
+    /**
+     * Makes zip archive with one deflated entry.
+     * @param name name of entry
+     * @param content content of entry
+     * @return bytes of archive
+     * @throws Exception if can't write archive
+     */
+    private byte[] zipOf(String name, byte[] content) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(name));
+            zos.write(content);
+            zos.closeEntry();
+        }
+        return baos.toByteArray();
+    }
+
 }
\ No newline at end of file
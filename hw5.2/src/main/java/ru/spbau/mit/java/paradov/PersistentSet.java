@@ -0,0 +1,237 @@
+package ru.spbau.mit.java.paradov;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of unique elements, kept in AVL tree like Set. add() and remove() don't change
+ * the set, they return a new version, which copies only nodes on the path to the changed element
+ * and shares all other subtrees with the old version. So an old version costs nothing to keep:
+ * a snapshot is just a reference to the set. All fields are final and nodes are never changed,
+ * so any version can be read from any thread without locks, once the reference is published
+ * (e.g. through a volatile field or AtomicReference).
+ * Iteration goes in ascending order.
+ * @param <T> type of elements, that set keeps
+ */
+public final class PersistentSet<T extends Comparable<T>> implements Iterable<T> {
+    /** Root of a tree, null if set is empty. */
+    private final Node<T> root;
+
+    /** Number of elements in set. */
+    private final int size;
+
+    /** Creates empty set. */
+    public PersistentSet() {
+        this(null, 0);
+    }
+
+    private PersistentSet(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets number of elements in set.
+     * @return size of set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if object is in set.
+     * @param obj object that we try to find in set
+     * @return true, if object was found, false otherwise
+     */
+    public boolean contains(T obj) {
+        Node<T> current = root;
+        while (current != null) {
+            int comparison = obj.compareTo(current.content);
+            if (comparison == 0) {
+                return true;
+            }
+            current = comparison < 0 ? current.leftBranch : current.rightBranch;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns set with object added. This set is not changed.
+     * @param obj object that we want to add
+     * @return new version of set, or this set if object already was in it
+     */
+    public PersistentSet<T> add(T obj) {
+        Node<T> newRoot = add(root, obj);
+        return newRoot == root ? this : new PersistentSet<>(newRoot, size + 1);
+    }
+
+    /**
+     * Returns set without object. This set is not changed.
+     * @param obj object that we want to remove
+     * @return new version of set, or this set if object was not in it
+     */
+    public PersistentSet<T> remove(T obj) {
+        Node<T> newRoot = remove(root, obj);
+        return newRoot == root ? this : new PersistentSet<>(newRoot, size - 1);
+    }
+
+    /**
+     * Returns iterator over elements in ascending order. Set can't change, so iterator
+     * never fails and doesn't support remove().
+     * @return iterator over set
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new SetIterator<>(root);
+    }
+
+    /**
+     * Adds object to subtree.
+     * @return new root of subtree, or the same node if object is already there
+     */
+    private static <T extends Comparable<T>> Node<T> add(Node<T> node, T obj) {
+        if (node == null) {
+            return new Node<>(obj, null, null);
+        }
+
+        int comparison = obj.compareTo(node.content);
+        if (comparison == 0) {
+            return node;
+        }
+        if (comparison < 0) {
+            Node<T> left = add(node.leftBranch, obj);
+            return left == node.leftBranch ? node : balance(node.content, left, node.rightBranch);
+        }
+        Node<T> right = add(node.rightBranch, obj);
+        return right == node.rightBranch ? node : balance(node.content, node.leftBranch, right);
+    }
+
+    /**
+     * Removes object from subtree.
+     * @return new root of subtree, or the same node if object is not there
+     */
+    private static <T extends Comparable<T>> Node<T> remove(Node<T> node, T obj) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = obj.compareTo(node.content);
+        if (comparison < 0) {
+            Node<T> left = remove(node.leftBranch, obj);
+            return left == node.leftBranch ? node : balance(node.content, left, node.rightBranch);
+        }
+        if (comparison > 0) {
+            Node<T> right = remove(node.rightBranch, obj);
+            return right == node.rightBranch ? node : balance(node.content, node.leftBranch, right);
+        }
+
+        if (node.leftBranch == null) {
+            return node.rightBranch;
+        }
+        if (node.rightBranch == null) {
+            return node.leftBranch;
+        }
+        Node<T> successor = node.rightBranch;
+        while (successor.leftBranch != null) {
+            successor = successor.leftBranch;
+        }
+        return balance(successor.content, node.leftBranch, removeMin(node.rightBranch));
+    }
+
+    /** Removes the least node of subtree and returns new root of subtree. */
+    private static <T extends Comparable<T>> Node<T> removeMin(Node<T> node) {
+        if (node.leftBranch == null) {
+            return node.rightBranch;
+        }
+        return balance(node.content, removeMin(node.leftBranch), node.rightBranch);
+    }
+
+    /**
+     * Creates node with given subtrees, whose heights differ at most by two, and rotates it if needed.
+     * @return new root of subtree
+     */
+    private static <T extends Comparable<T>> Node<T> balance(T content, Node<T> left, Node<T> right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.leftBranch) >= height(left.rightBranch)) {
+                return new Node<>(left.content, left.leftBranch, new Node<>(content, left.rightBranch, right));
+            }
+            Node<T> middle = left.rightBranch;
+            return new Node<>(middle.content,
+                    new Node<>(left.content, left.leftBranch, middle.leftBranch),
+                    new Node<>(content, middle.rightBranch, right));
+        }
+        if (difference < -1) {
+            if (height(right.rightBranch) >= height(right.leftBranch)) {
+                return new Node<>(right.content, new Node<>(content, left, right.leftBranch), right.rightBranch);
+            }
+            Node<T> middle = right.leftBranch;
+            return new Node<>(middle.content,
+                    new Node<>(content, left, middle.leftBranch),
+                    new Node<>(right.content, middle.rightBranch, right.rightBranch));
+        }
+        return new Node<>(content, left, right);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Immutable element of binary tree, which set uses. It can be shared by many versions of set.
+     */
+    private static final class Node<T> {
+        /** Value that node keeps. */
+        private final T content;
+
+        /** Height of subtree of this node, node without children has height 1. */
+        private final int height;
+
+        /** Head of left subtree, where all the elements less than this element are kept. */
+        private final Node<T> leftBranch;
+
+        /** Head of right subtree, where all the elements greater than this element are kept. */
+        private final Node<T> rightBranch;
+
+        private Node(T content, Node<T> leftBranch, Node<T> rightBranch) {
+            this.content = content;
+            this.leftBranch = leftBranch;
+            this.rightBranch = rightBranch;
+            this.height = Math.max(height(leftBranch), height(rightBranch)) + 1;
+        }
+    }
+
+    /** In-order iterator, keeps path to the next element with the next element on top. */
+    private static final class SetIterator<T> implements Iterator<T> {
+        private final Deque<Node<T>> stack = new ArrayDeque<>();
+
+        private SetIterator(Node<T> root) {
+            pushLeftPath(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            Node<T> node = stack.pop();
+            pushLeftPath(node.rightBranch);
+            return node.content;
+        }
+
+        private void pushLeftPath(Node<T> current) {
+            for (; current != null; current = current.leftBranch) {
+                stack.push(current);
+            }
+        }
+    }
+}
@@ -1,21 +1,35 @@
 package ru.spbau.mit.java.paradov;
 
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
- * Class that contains unique elements. To get fast access, it uses binary unbalanced tree:
+ * Class that contains unique elements. To get fast access, it uses AVL tree:
  * all objects greater than object in the vertex are in its right subtree,
- * all objects less - in its left subtree.
+ * all objects less - in its left subtree, and heights of subtrees of every vertex
+ * differ at most by one, so any operation takes O(log n) even if elements come sorted.
+ * Iteration goes in ascending order.
  * @param <T> type of elements, that set keeps
  */
-public class Set<T extends Comparable<T>> {
-    /** Head of a binary tree. */
-    private Node head = new Node();
+public class Set<T extends Comparable<T>> implements Iterable<T> {
+    /** Root of a tree, null if set is empty. */
+    private Node root = null;
+
+    /** Number of elements in set. */
+    private int size = 0;
+
+    /** Number of changes of set, used by iterators to notice changes made not through them. */
+    private int modCount = 0;
 
     /**
      * Gets number of elements in set.
      * @return size of set
      */
     public int size() {
-        return head.size;
+        return size;
     }
 
     /**
@@ -24,17 +38,13 @@ public class Set<T extends Comparable<T>> {
      * @return true, if object was found, false otherwise
      */
     public boolean contains(T obj) {
-        Node current = head;
-        while (!current.isLeaf()) {
-            if (current.content.compareTo(obj) == 0) {
+        Node current = root;
+        while (current != null) {
+            int comparison = obj.compareTo(current.content);
+            if (comparison == 0) {
                 return true;
             }
-
-            if (current.content.compareTo(obj) > 0) {
-                current = current.rightBranch;
-            } else {
-                current = current.leftBranch;
-            }
+            current = comparison < 0 ? current.leftBranch : current.rightBranch;
         }
 
         return false;
@@ -42,24 +52,139 @@ public class Set<T extends Comparable<T>> {
 
     /**
      * If object already is in set, does nothing, otherwise adds it.
+     * Tree is walked down once, and on the way back heights are updated and rotations are made.
      * @param obj object that we want to add
+     * @return true, if object was added, false if it already was in set
+     */
+    public boolean add(T obj) {
+        int oldSize = size;
+        root = add(root, obj);
+        return size != oldSize;
+    }
+
+    /**
+     * Removes object from set, if it is there.
+     * @param obj object that we want to remove
+     * @return true, if object was removed, false if it was not in set
      */
-    public void add(T obj) {
-        if (contains(obj)) {
-            return;
+    public boolean remove(T obj) {
+        int oldSize = size;
+        root = remove(root, obj);
+        return size != oldSize;
+    }
+
+    /**
+     * Returns iterator over elements in ascending order. Its remove() is supported,
+     * other changes of set during iteration make it throw ConcurrentModificationException.
+     * @return iterator over set
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new SetIterator();
+    }
+
+    /** Adds object to subtree and returns new root of subtree. */
+    private Node add(Node node, T obj) {
+        if (node == null) {
+            size++;
+            modCount++;
+            return new Node(obj);
+        }
+
+        int comparison = obj.compareTo(node.content);
+        if (comparison == 0) {
+            return node;
+        }
+        if (comparison < 0) {
+            node.leftBranch = add(node.leftBranch, obj);
+        } else {
+            node.rightBranch = add(node.rightBranch, obj);
+        }
+        return balance(node);
+    }
+
+    /** Removes object from subtree and returns new root of subtree. */
+    private Node remove(Node node, T obj) {
+        if (node == null) {
+            return null;
         }
 
-        Node current = head;
-        while (!current.isLeaf()) {
-            current.size++;
-            if (current.content.compareTo(obj) > 0) {
-                current = current.rightBranch;
-            } else {
-                current = current.leftBranch;
+        int comparison = obj.compareTo(node.content);
+        if (comparison < 0) {
+            node.leftBranch = remove(node.leftBranch, obj);
+        } else if (comparison > 0) {
+            node.rightBranch = remove(node.rightBranch, obj);
+        } else {
+            size--;
+            modCount++;
+            if (node.leftBranch == null) {
+                return node.rightBranch;
+            }
+            if (node.rightBranch == null) {
+                return node.leftBranch;
+            }
+
+            Node successor = node.rightBranch;
+            while (successor.leftBranch != null) {
+                successor = successor.leftBranch;
+            }
+            node.content = successor.content;
+            node.rightBranch = removeMin(node.rightBranch);
+        }
+        return balance(node);
+    }
+
+    /** Removes the least node of subtree and returns new root of subtree. */
+    private Node removeMin(Node node) {
+        if (node.leftBranch == null) {
+            return node.rightBranch;
+        }
+        node.leftBranch = removeMin(node.leftBranch);
+        return balance(node);
+    }
+
+    /**
+     * Updates height of node and rotates it, if heights of its subtrees differ by two.
+     * @return new root of subtree
+     */
+    private Node balance(Node node) {
+        int difference = height(node.leftBranch) - height(node.rightBranch);
+        if (difference > 1) {
+            if (height(node.leftBranch.leftBranch) < height(node.leftBranch.rightBranch)) {
+                node.leftBranch = rotateLeft(node.leftBranch);
             }
+            return rotateRight(node);
         }
+        if (difference < -1) {
+            if (height(node.rightBranch.rightBranch) < height(node.rightBranch.leftBranch)) {
+                node.rightBranch = rotateRight(node.rightBranch);
+            }
+            return rotateLeft(node);
+        }
+        node.updateHeight();
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node newRoot = node.leftBranch;
+        node.leftBranch = newRoot.rightBranch;
+        newRoot.rightBranch = node;
+        node.updateHeight();
+        newRoot.updateHeight();
+        return newRoot;
+    }
 
-        current.fill(obj);
+    private Node rotateLeft(Node node) {
+        Node newRoot = node.rightBranch;
+        node.rightBranch = newRoot.leftBranch;
+        newRoot.leftBranch = node;
+        node.updateHeight();
+        newRoot.updateHeight();
+        return newRoot;
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
     }
 
     /**
@@ -67,10 +192,10 @@ public class Set<T extends Comparable<T>> {
      */
     private class Node {
         /** Value that node keeps. */
-        private T content = null;
+        private T content;
 
-        /** Size of subtree of this node. If size is 0, this node considered as leaf. */
-        private int size = 0;
+        /** Height of subtree of this node, node without children has height 1. */
+        private int height = 1;
 
         /** Head of left subtree, where all the elements less than this element are kept. */
         private Node leftBranch = null;
@@ -78,24 +203,84 @@ public class Set<T extends Comparable<T>> {
         /** Head of right subtree, where all the elements greater than this element are kept. */
         private Node rightBranch = null;
 
-        /**
-         * Puts object into Node, creates two empty leaves - children of
-         * this node, therefore this node is not a leaf anymore.
-         * @param obj object that we put into node.
-         */
-        private void fill(T obj) {
-            content = obj;
-            leftBranch = new Node();
-            rightBranch = new Node();
-            size++;
+        private Node(T content) {
+            this.content = content;
+        }
+
+        private void updateHeight() {
+            height = Math.max(height(leftBranch), height(rightBranch)) + 1;
+        }
+    }
+
+    /**
+     * In-order iterator. It keeps path to the next element: nodes whose elements
+     * are not returned yet and whose left subtrees are already done.
+     */
+    private class SetIterator implements Iterator<T> {
+        /** Nodes on the path to the next element, the next element is on top. */
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        /** Element returned by the last call of next(), null if remove() is not allowed. */
+        private T lastReturned = null;
+
+        /** Expected modCount of set. */
+        private int expectedModCount = modCount;
+
+        private SetIterator() {
+            for (Node current = root; current != null; current = current.leftBranch) {
+                stack.push(current);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            Node node = stack.pop();
+            for (Node current = node.rightBranch; current != null; current = current.leftBranch) {
+                stack.push(current);
+            }
+            lastReturned = node.content;
+            return lastReturned;
         }
 
         /**
-         * Checks if this node is a leaf - empty node without content and children.
-         * @return true, if this node is a leaf, false otherwise
+         * Removes the last returned element. Removal rotates the tree, so the path
+         * to the next element is found again from the root.
          */
-        private boolean isLeaf() {
-            return size == 0;
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            Set.this.remove(lastReturned);
+            expectedModCount = modCount;
+
+            stack.clear();
+            Node current = root;
+            while (current != null) {
+                if (lastReturned.compareTo(current.content) < 0) {
+                    stack.push(current);
+                    current = current.leftBranch;
+                } else {
+                    current = current.rightBranch;
+                }
+            }
+            lastReturned = null;
         }
     }
 }
@@ -0,0 +1,137 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of class PersistentSet and its methods. */
+public class PersistentSetTest {
+    /** Tests if size of empty set is zero and it contains nothing. */
+    @Test
+    public void testEmptySet() {
+        PersistentSet<Integer> si = new PersistentSet<>();
+
+        assertEquals(0, si.size());
+        assertFalse(si.contains(1));
+        assertFalse(si.iterator().hasNext());
+    }
+
+    /** Tests if add() returns set with element and doesn't change old version. */
+    @Test
+    public void testAddReturnsNewVersion() {
+        PersistentSet<Integer> empty = new PersistentSet<>();
+        PersistentSet<Integer> one = empty.add(1);
+
+        assertTrue(one.contains(1));
+        assertEquals(1, one.size());
+        assertFalse(empty.contains(1));
+        assertEquals(0, empty.size());
+    }
+
+    /** Tests if adding present element returns the same set. */
+    @Test
+    public void testAddOfPresentElementReturnsSameSet() {
+        PersistentSet<String> si = new PersistentSet<String>().add("a").add("b");
+
+        assertSame(si, si.add("a"));
+    }
+
+    /** Tests if remove() returns set without element and doesn't change old version. */
+    @Test
+    public void testRemoveReturnsNewVersion() {
+        PersistentSet<Integer> si = new PersistentSet<Integer>().add(2).add(1).add(3);
+        PersistentSet<Integer> removed = si.remove(2);
+
+        assertFalse(removed.contains(2));
+        assertTrue(removed.contains(1));
+        assertTrue(removed.contains(3));
+        assertEquals(2, removed.size());
+        assertTrue(si.contains(2));
+        assertEquals(3, si.size());
+        assertSame(removed, removed.remove(2));
+    }
+
+    /** Tests if every old version keeps exactly its elements after many sorted adds and removes. */
+    @Test
+    public void testOldVersionsStayUnchanged() {
+        List<PersistentSet<Integer>> versions = new ArrayList<>();
+        PersistentSet<Integer> si = new PersistentSet<>();
+        for (int i = 0; i < 200; i++) {
+            versions.add(si);
+            si = si.add(i);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            si = si.remove(i);
+        }
+
+        for (int version = 0; version < versions.size(); version++) {
+            PersistentSet<Integer> old = versions.get(version);
+            assertEquals(version, old.size());
+            for (int i = 0; i < 200; i++) {
+                assertEquals(i < version, old.contains(i));
+            }
+        }
+        assertEquals(100, si.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, si.contains(i));
+        }
+    }
+
+    /** Tests if iterator returns all elements in ascending order. */
+    @Test
+    public void testIteratorReturnsSortedElements() {
+        PersistentSet<Integer> si = new PersistentSet<Integer>().add(5).add(1).add(4).add(2).add(3);
+
+        List<Integer> elements = new ArrayList<>();
+        for (int element : si) {
+            elements.add(element);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), elements);
+    }
+
+    /**
+     * Tests if readers see consistent snapshots while writer publishes new versions:
+     * a snapshot of size n must contain exactly elements 0..n-1.
+     */
+    @Test
+    public void testSnapshotsAreReadableWhileWriterAdds() throws InterruptedException {
+        AtomicReference<PersistentSet<Integer>> current = new AtomicReference<>(new PersistentSet<>());
+        List<Throwable> errors = new ArrayList<>();
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 10000; i++) {
+                current.set(current.get().add(i));
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                PersistentSet<Integer> snapshot;
+                do {
+                    snapshot = current.get();
+                    int expected = 0;
+                    for (int element : snapshot) {
+                        assertEquals(expected++, element);
+                    }
+                    assertEquals(snapshot.size(), expected);
+                } while (snapshot.size() < 10000);
+            } catch (Throwable e) {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            }
+        });
+
+        reader.start();
+        writer.start();
+        writer.join();
+        reader.join();
+
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+}
@@ -2,6 +2,13 @@ package ru.spbau.mit.java.paradov;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
 import static org.junit.Assert.*;
 
 /** Class that tests functionality of class Set and its methods. */
@@ -140,4 +147,136 @@ public class SetTest {
         assertFalse(si.contains(7));
     }
 
-}
\ No newline at end of file
+    /** Tests if add() returns true only for new elements. */
+    @Test
+    public void testAddReturnsIfElementWasAdded() {
+        Set<Integer> si = new Set<>();
+
+        assertTrue(si.add(1));
+        assertFalse(si.add(1));
+    }
+
+    /** Tests if many sorted elements are added and found, tree must stay balanced for this to be fast. */
+    @Test
+    public void testSortedAddKeepsAllElements() {
+        Set<Integer> si = new Set<>();
+        for (int i = 0; i < 100000; i++) {
+            si.add(i);
+        }
+
+        assertEquals(100000, si.size());
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(si.contains(i));
+        }
+        assertFalse(si.contains(-1));
+        assertFalse(si.contains(100000));
+    }
+
+    /** Tests if remove() removes element and changes size. */
+    @Test
+    public void testRemoveRemovesElement() {
+        Set<Integer> si = new Set<>();
+        si.add(2);
+        si.add(1);
+        si.add(3);
+
+        assertTrue(si.remove(2));
+        assertFalse(si.contains(2));
+        assertTrue(si.contains(1));
+        assertTrue(si.contains(3));
+        assertEquals(2, si.size());
+    }
+
+    /** Tests if remove() returns false and doesn't change size, when element is not in set. */
+    @Test
+    public void testRemoveOfAbsentElement() {
+        Set<Integer> si = new Set<>();
+        si.add(1);
+
+        assertFalse(si.remove(2));
+        assertEquals(1, si.size());
+    }
+
+    /** Tests if set stays correct after removing half of many elements. */
+    @Test
+    public void testManyRemoves() {
+        Set<Integer> si = new Set<>();
+        for (int i = 0; i < 1000; i++) {
+            si.add(i * 7919 % 1000);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(si.remove(i));
+        }
+
+        assertEquals(500, si.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, si.contains(i));
+        }
+    }
+
+    /** Tests if iterator returns all elements in ascending order. */
+    @Test
+    public void testIteratorReturnsSortedElements() {
+        Set<Integer> si = new Set<>();
+        si.add(5);
+        si.add(1);
+        si.add(4);
+        si.add(2);
+        si.add(3);
+
+        List<Integer> elements = new ArrayList<>();
+        for (int element : si) {
+            elements.add(element);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), elements);
+    }
+
+    /** Tests if iterator of empty set has no elements. */
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorOfEmptySet() {
+        Set<Integer> si = new Set<>();
+        Iterator<Integer> iterator = si.iterator();
+
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    /** Tests if removing through iterator keeps iteration going over the rest of elements. */
+    @Test
+    public void testIteratorRemove() {
+        Set<Integer> si = new Set<>();
+        for (int i = 0; i < 100; i++) {
+            si.add(i);
+        }
+
+        List<Integer> elements = new ArrayList<>();
+        Iterator<Integer> iterator = si.iterator();
+        while (iterator.hasNext()) {
+            int element = iterator.next();
+            elements.add(element);
+            if (element % 3 != 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(100, elements.size());
+        assertEquals(34, si.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 == 0, si.contains(i));
+        }
+    }
+
+    /** Tests if iterator fails after set was changed not through it. */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailsAfterChange() {
+        Set<Integer> si = new Set<>();
+        si.add(1);
+        si.add(2);
+
+        Iterator<Integer> iterator = si.iterator();
+        iterator.next();
+        si.add(3);
+        iterator.next();
+    }
+}
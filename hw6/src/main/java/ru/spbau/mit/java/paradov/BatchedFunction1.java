@@ -0,0 +1,77 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Function of one argument backed by a bulk function, which takes a list of arguments
+ * and returns list of results in the same order. Collections.map() gives it all arguments
+ * at once, and they are passed to bulk function in batches of fixed size.
+ * A single apply() makes a batch of one argument.
+ * @param <T> type of argument
+ * @param <R> type function's result
+ */
+public final class BatchedFunction1<T, R> implements Function1<T, R> {
+    /** Function which computes results for a list of arguments. */
+    private final Function1<? super List<T>, ? extends List<? extends R>> bulk;
+
+    /** Maximal number of arguments passed to bulk function at once. */
+    private final int batchSize;
+
+    /**
+     * Creates function backed by bulk function.
+     * @param bulk function which takes list of arguments and returns list of results of the same size
+     * @param batchSize maximal number of arguments passed to bulk function at once
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public BatchedFunction1(@NotNull final Function1<? super List<T>, ? extends List<? extends R>> bulk,
+                            final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, but it is " + batchSize + ".");
+        }
+
+        this.bulk = bulk;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public R apply(T arg) {
+        List<T> batch = new ArrayList<>(1);
+        batch.add(arg);
+        List<R> result = new ArrayList<>(1);
+        dispatch(batch, result);
+        return result.get(0);
+    }
+
+    /**
+     * Applies function to all arguments, passing them to bulk function in batches.
+     * @param args arguments to apply function to
+     * @param results collection where results are added in order of arguments
+     * @throws IllegalStateException if bulk function returned wrong number of results
+     */
+    public void applyAll(@NotNull final Iterable<? extends T> args, @NotNull final Collection<? super R> results) {
+        List<T> batch = new ArrayList<>(batchSize);
+        Iterator<? extends T> iterator = args.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize || !iterator.hasNext()) {
+                dispatch(batch, results);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /** Passes batch to bulk function and adds its results to collection. */
+    private void dispatch(@NotNull final List<T> batch, @NotNull final Collection<? super R> results) {
+        List<? extends R> batchResults = bulk.apply(batch);
+        if (batchResults.size() != batch.size()) {
+            throw new IllegalStateException("Bulk function returned " + batchResults.size()
+                    + " results for " + batch.size() + " arguments.");
+        }
+        results.addAll(batchResults);
+    }
+}
@@ -3,15 +3,23 @@ package ru.spbau.mit.java.paradov;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
-/** Class that contains operations to work with functions and container. */
+/**
+ * Class that contains operations to work with functions and container.
+ * Every method here builds its result eagerly; Seq does the same operations lazily in one pass.
+ */
 public class Collections {
     /**
      * Applies function to all elements in the container.
      * Results are put in ArrayList, which we return.
+     * If function is made by Function1.batched(), elements are passed to it in batches.
      * @param f function that we are applying
      * @param container container with elements we are applying function to
      * @param <T> type of elements that function takes
@@ -21,6 +29,13 @@ public class Collections {
     public static <T, R> @NotNull List<R> map(@NotNull final Function1<? super T, ? extends R> f,
                                               @NotNull final Iterable<? extends T> container){
         ArrayList<R> result = new ArrayList<>();
+        if (f instanceof BatchedFunction1) {
+            @SuppressWarnings("unchecked") //cast only adds type parameters which f already has
+            BatchedFunction1<? super T, ? extends R> batched = (BatchedFunction1<? super T, ? extends R>) f;
+            batched.applyAll(container, result);
+            return result;
+        }
+
         for (T obj : container) {
             result.add(f.apply(obj));
         }
@@ -110,6 +125,9 @@ public class Collections {
     /**
      * Turns a list to one value by combining the first element
      * with the result of recursively combining the rest, using given function.
+     * Elements are combined in a loop from the last one to the first, so size of collection
+     * is not limited by the stack: lists are walked backwards, other collections are copied
+     * to an array first.
      * @param f function we use to combine elements
      * @param initialValue initial value; result of combining zero elements
      * @param collection collection which contains elements we combine
@@ -120,28 +138,224 @@ public class Collections {
     public static <T, R> R foldr(@NotNull final Function2<? super T, ? super R, ? extends R> f,
                                  final R initialValue,
                                  @NotNull final Collection<? extends T> collection) {
-        return foldrWithIterator(f, initialValue, collection.iterator());
+        List<? extends T> list = collection instanceof List ? (List<? extends T>) collection
+                                                            : new ArrayList<>(collection);
+        R result = initialValue;
+        if (list instanceof RandomAccess) {
+            for (int i = list.size() - 1; i >= 0; i--) {
+                result = f.apply(list.get(i), result);
+            }
+        } else {
+            for (ListIterator<? extends T> iterator = list.listIterator(list.size()); iterator.hasPrevious(); ) {
+                result = f.apply(iterator.previous(), result);
+            }
+        }
+
+        return result;
     }
 
     /**
-     * Utility function that we call from foldr(), because in this function we can do
-     * recursion on iterators, not on collection.
-     * @param f function we use to combine elements
-     * @param initialValue initial value; result of combining zero elements
-     * @param iterator iterator to an element we want to combine
+     * Does the same as foldl(), but splits collection into parts which are folded in parallel
+     * on the common ForkJoinPool, and then results of neighbouring parts are combined.
+     * So f and combiner must be associative together, and initialValue must be neutral:
+     * every part starts from it. Order of elements is kept.
+     * @param f function we use to combine result of a part with the next element
+     * @param combiner function we use to combine results of two neighbouring parts
+     * @param initialValue neutral value; result of combining zero elements
+     * @param collection collection which contains elements we combine
      * @param <T> type of elements in container
      * @param <R> type of result value
      * @return result of combining collection into value
      */
-    private static <T, R> R foldrWithIterator(@NotNull final Function2<? super T, ? super R, ? extends R> f,
-                                              final R initialValue,
-                                              @NotNull final Iterator<? extends T> iterator) {
-        if (!iterator.hasNext()) {
-            return initialValue;
+    public static <T, R> R parallelFoldl(@NotNull final Function2<? super R, ? super T, ? extends R> f,
+                                         @NotNull final Function2<? super R, ? super R, ? extends R> combiner,
+                                         final R initialValue,
+                                         @NotNull final Collection<? extends T> collection) {
+        List<? extends T> list = collection instanceof RandomAccess && collection instanceof List
+                ? (List<? extends T>) collection
+                : new ArrayList<>(collection);
+        return ForkJoinPool.commonPool().invoke(new FoldTask<>(f, combiner, initialValue, list, 0, list.size()));
+    }
+
+    /**
+     * Combines all elements of collection with associative function in parallel,
+     * as parallelFoldl() with the same function for elements and for parts.
+     * @param f associative function we use to combine elements
+     * @param initialValue neutral value of f; result of combining zero elements
+     * @param collection collection which contains elements we combine
+     * @param <T> type of elements in container and of result
+     * @return result of combining collection into value
+     */
+    public static <T> T parallelReduce(@NotNull final Function2<? super T, ? super T, ? extends T> f,
+                                       final T initialValue,
+                                       @NotNull final Collection<? extends T> collection) {
+        return parallelFoldl(f, f, initialValue, collection);
+    }
+
+    /**
+     * Applies function to all elements of array of ints; nothing is boxed.
+     * @param f function that we are applying
+     * @param array array with elements we are applying function to
+     * @return new array with results of applying function to elements of given array
+     */
+    public static @NotNull int[] map(@NotNull final IntFunction1 f, @NotNull final int[] array) {
+        int[] result = new int[array.length];
+        for (int i = 0; i < array.length; i++) {
+            result[i] = f.apply(array[i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Applies function that returns int to all elements in the container.
+     * @param f function that we are applying
+     * @param container container with elements we are applying function to
+     * @param <T> type of elements that function takes
+     * @return array with results of applying function to elements from given container
+     */
+    public static <T> @NotNull int[] mapToInt(@NotNull final ToIntFunction1<? super T> f,
+                                              @NotNull final Collection<? extends T> container) {
+        int[] result = new int[container.size()];
+        int size = 0;
+        for (T obj : container) {
+            result[size++] = f.apply(obj);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates array with elements of given array, predicate on which returns true.
+     * @param predicate predicate which checks if we put element in result array
+     * @param array array with elements we choose from
+     * @return new array with elements, predicate on which returns true
+     */
+    public static @NotNull int[] filter(@NotNull final IntPredicate predicate, @NotNull final int[] array) {
+        int[] result = new int[array.length];
+        int size = 0;
+        for (int element : array) {
+            if (predicate.apply(element)) {
+                result[size++] = element;
+            }
+        }
+
+        return size == array.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Creates array with elements of given array from beginning to the first element,
+     * predicate on which returns false, without this element.
+     * @param predicate predicate which we use to stop taking elements
+     * @param array array with elements we want to check
+     * @return new array with the longest prefix of given array, predicate on which returns true
+     */
+    public static @NotNull int[] takeWhile(@NotNull final IntPredicate predicate, @NotNull final int[] array) {
+        return Arrays.copyOf(array, prefixLength(predicate, true, array));
+    }
+
+    /**
+     * Creates array with elements of given array from beginning to the first element,
+     * predicate on which returns true, without this element.
+     * @param predicate predicate which we use to stop taking elements
+     * @param array array with elements we want to check
+     * @return new array with the longest prefix of given array, predicate on which returns false
+     */
+    public static @NotNull int[] takeUnless(@NotNull final IntPredicate predicate, @NotNull final int[] array) {
+        return Arrays.copyOf(array, prefixLength(predicate, false, array));
+    }
+
+    /**
+     * Finds length of the longest prefix of array, predicate on which returns expected value.
+     * @param predicate predicate which we check
+     * @param expected value predicate has to return
+     * @param array array we check
+     * @return length of prefix
+     */
+    private static int prefixLength(@NotNull final IntPredicate predicate, final boolean expected,
+                                    @NotNull final int[] array) {
+        int length = 0;
+        while (length < array.length && predicate.apply(array[length]) == expected) {
+            length++;
         }
 
-        T obj = iterator.next();
-        return f.apply(obj, foldrWithIterator(f, initialValue, iterator));
+        return length;
     }
 
+    /**
+     * Combines ints of array from left to right, as foldl() does; nothing is boxed.
+     * @param f function we use to combine elements
+     * @param initialValue initial value; result of combining zero elements
+     * @param array array which contains elements we combine
+     * @return result of combining array into value
+     */
+    public static int foldl(@NotNull final IntIntFunction2 f, final int initialValue, @NotNull final int[] array) {
+        int result = initialValue;
+        for (int element : array) {
+            result = f.apply(result, element);
+        }
+
+        return result;
+    }
+
+    /**
+     * Combines ints of array from right to left, as foldr() does; nothing is boxed.
+     * @param f function we use to combine elements
+     * @param initialValue initial value; result of combining zero elements
+     * @param array array which contains elements we combine
+     * @return result of combining array into value
+     */
+    public static int foldr(@NotNull final IntIntFunction2 f, final int initialValue, @NotNull final int[] array) {
+        int result = initialValue;
+        for (int i = array.length - 1; i >= 0; i--) {
+            result = f.apply(array[i], result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Task which folds range of list from (inclusive) to to (exclusive). It is split in halves
+     * while range is longer than SEQUENTIAL_THRESHOLD.
+     */
+    private static class FoldTask<T, R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        /** Number of elements which are folded in one task without splitting. */
+        private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+        private final Function2<? super R, ? super T, ? extends R> f;
+        private final Function2<? super R, ? super R, ? extends R> combiner;
+        private final R initialValue;
+        private final List<? extends T> list;
+        private final int from;
+        private final int to;
+
+        FoldTask(Function2<? super R, ? super T, ? extends R> f, Function2<? super R, ? super R, ? extends R> combiner,
+                 R initialValue, List<? extends T> list, int from, int to) {
+            this.f = f;
+            this.combiner = combiner;
+            this.initialValue = initialValue;
+            this.list = list;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                R result = initialValue;
+                for (int i = from; i < to; i++) {
+                    result = f.apply(result, list.get(i));
+                }
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            FoldTask<T, R> right = new FoldTask<>(f, combiner, initialValue, list, middle, to);
+            right.fork();
+            R left = new FoldTask<>(f, combiner, initialValue, list, from, middle).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
 }
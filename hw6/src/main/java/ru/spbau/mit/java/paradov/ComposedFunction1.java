@@ -0,0 +1,58 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Composition of functions of one argument, kept as a flat array of stages.
+ * When a composition is composed again, stages of both sides are copied into one array,
+ * so applying a chain of any length is a loop over stages, not a chain of nested calls.
+ * @param <T> type of argument of the first stage
+ * @param <R> type of result of the last stage
+ */
+final class ComposedFunction1<T, R> implements Function1<T, R> {
+    /** Functions applied one after another; types of neighbouring stages match. */
+    private final Function1<Object, Object>[] stages;
+
+    private ComposedFunction1(@NotNull final Function1<Object, Object>[] stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Makes composition of two functions: first is applied, then second.
+     * If any of them is a composition itself, its stages are taken instead of it.
+     * @param first function applied first
+     * @param second function applied to result of first one
+     * @param <T> type of argument of first function
+     * @param <R> type of result of second function
+     * @return flat composition of functions
+     */
+    static <T, R> @NotNull ComposedFunction1<T, R> of(@NotNull final Function1<?, ?> first,
+                                                      @NotNull final Function1<?, ?> second) {
+        Function1<Object, Object>[] firstStages = stagesOf(first);
+        Function1<Object, Object>[] secondStages = stagesOf(second);
+
+        @SuppressWarnings({"unchecked", "rawtypes"}) //types of stages are checked by compose() which calls this
+        Function1<Object, Object>[] stages = new Function1[firstStages.length + secondStages.length];
+        System.arraycopy(firstStages, 0, stages, 0, firstStages.length);
+        System.arraycopy(secondStages, 0, stages, firstStages.length, secondStages.length);
+        return new ComposedFunction1<>(stages);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) //stages only pass objects to each other
+    private static Function1<Object, Object>[] stagesOf(@NotNull final Function1<?, ?> f) {
+        if (f instanceof ComposedFunction1) {
+            return ((ComposedFunction1<?, ?>) f).stages;
+        }
+        return new Function1[] {f};
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") //the last stage returns R
+    public R apply(T arg) {
+        Object result = arg;
+        for (Function1<Object, Object> stage : stages) {
+            result = stage.apply(result);
+        }
+        return (R) result;
+    }
+}
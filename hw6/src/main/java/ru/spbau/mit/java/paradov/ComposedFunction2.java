@@ -0,0 +1,49 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Function of two arguments followed by a flat composition of functions of one argument.
+ * Composing it again only adds stages to the composition, see ComposedFunction1.
+ * @param <T1> type of a first argument
+ * @param <T2> type of a second argument
+ * @param <R> type of a result
+ */
+final class ComposedFunction2<T1, T2, R> implements Function2<T1, T2, R> {
+    /** Function applied to arguments. */
+    private final Function2<T1, T2, ?> first;
+
+    /** Function, maybe flat composition, applied to result of first function. */
+    private final Function1<Object, R> rest;
+
+    private ComposedFunction2(@NotNull final Function2<T1, T2, ?> first,
+                              @NotNull final Function1<Object, R> rest) {
+        this.first = first;
+        this.rest = rest;
+    }
+
+    /**
+     * Makes composition of function of two arguments and function of one argument.
+     * If first function is a composition itself, second is merged into its stages.
+     * @param first function applied to arguments
+     * @param second function applied to result of first one
+     * @param <T1> type of a first argument
+     * @param <T2> type of a second argument
+     * @param <R> type of result of second function
+     * @return composition of functions
+     */
+    @SuppressWarnings("unchecked") //second takes result of first, whatever its type is
+    static <T1, T2, R> @NotNull ComposedFunction2<T1, T2, R> of(@NotNull final Function2<T1, T2, ?> first,
+                                                                @NotNull final Function1<?, R> second) {
+        if (first instanceof ComposedFunction2) {
+            ComposedFunction2<T1, T2, ?> composed = (ComposedFunction2<T1, T2, ?>) first;
+            return new ComposedFunction2<>(composed.first, ComposedFunction1.<Object, R>of(composed.rest, second));
+        }
+        return new ComposedFunction2<>(first, (Function1<Object, R>) second);
+    }
+
+    @Override
+    public R apply(T1 arg1, T2 arg2) {
+        return rest.apply(first.apply(arg1, arg2));
+    }
+}
@@ -2,6 +2,8 @@ package ru.spbau.mit.java.paradov;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 /**
  * Interface that represents function of one argument.
  * @param <T> type of argument
@@ -18,17 +20,50 @@ public interface Function1 <T, R> {
     /**
      * Makes a composition of given function and this one.
      * Apply of a result function is apply of this function, and then apply of given function
-     * to a result of first apply.
+     * to a result of first apply. Compositions are kept as flat arrays of functions,
+     * so a long chain of compose() calls is applied by a loop, not by nested calls.
      * @param g given function of one argument
      * @param <R2> type of result of given function, therefore result of function we return
      * @return function of one argument - composition of this and given one
      */
     default public <R2> @NotNull Function1<T, R2> compose(@NotNull final Function1<R, R2> g) {
-        return new Function1<T, R2>() {
-            @Override
-            public R2 apply(T arg) {
-                return g.apply(Function1.this.apply(arg));
-            }
-        };
+        return ComposedFunction1.of(this, g);
+    }
+
+    /**
+     * Wraps this function with cache of results for recently used arguments.
+     * Wrapper must not be used by many threads at once.
+     * @param maxSize maximal number of remembered results
+     * @return function with the same results which computes them only on cache misses
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    default public @NotNull MemoizedFunction1<T, R> memoize(final int maxSize) {
+        return memoize(maxSize, false);
+    }
+
+    /**
+     * Wraps this function with cache of results for recently used arguments.
+     * @param maxSize maximal number of remembered results
+     * @param isThreadSafe true, if wrapper will be applied by many threads at once
+     * @return function with the same results which computes them only on cache misses
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    default public @NotNull MemoizedFunction1<T, R> memoize(final int maxSize, final boolean isThreadSafe) {
+        return new MemoizedFunction1<>(this, maxSize, isThreadSafe);
+    }
+
+    /**
+     * Makes function of one argument from a bulk function, which takes list of arguments
+     * and returns list of results. Collections.map() passes arguments to it in batches.
+     * @param bulk function which takes list of arguments and returns list of results of the same size
+     * @param batchSize maximal number of arguments passed to bulk function at once
+     * @param <T> type of argument
+     * @param <R> type function's result
+     * @return function backed by bulk function
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public static <T, R> @NotNull BatchedFunction1<T, R> batched(
+            @NotNull final Function1<? super List<T>, ? extends List<? extends R>> bulk, final int batchSize) {
+        return new BatchedFunction1<>(bulk, batchSize);
     }
 }
@@ -20,18 +20,14 @@ public interface Function2 <T1, T2, R> {
     /**
      * Makes a composition of a given function and this function.
      * Apply of a result function is apply of this function, and then apply of given function
-     * to a result of first apply.
+     * to a result of first apply. Functions composed to the result are kept as a flat array,
+     * as in Function1.compose().
      * @param g given function of one argument
      * @param <R2> type of result of given function, therefore result of function we return
      * @return function of two arguments - composition of this function and given one
      */
     default public <R2> @NotNull Function2<T1, T2, R2> compose(@NotNull final Function1<R, R2> g) {
-        return new Function2<T1, T2, R2>() {
-            @Override
-            public R2 apply(T1 arg1, T2 arg2) {
-                return g.apply(Function2.this.apply(arg1, arg2));
-            }
-        };
+        return ComposedFunction2.of(this, g);
     }
 
     /**
@@ -77,4 +73,26 @@ public interface Function2 <T1, T2, R> {
     default public @NotNull Function1<T2, R> curry(final T1 argToCurry) {
         return bind1(argToCurry);
     }
+
+    /**
+     * Wraps this function with cache of results for recently used pairs of arguments.
+     * Wrapper must not be used by many threads at once.
+     * @param maxSize maximal number of remembered results
+     * @return function with the same results which computes them only on cache misses
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    default public @NotNull MemoizedFunction2<T1, T2, R> memoize(final int maxSize) {
+        return memoize(maxSize, false);
+    }
+
+    /**
+     * Wraps this function with cache of results for recently used pairs of arguments.
+     * @param maxSize maximal number of remembered results
+     * @param isThreadSafe true, if wrapper will be applied by many threads at once
+     * @return function with the same results which computes them only on cache misses
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    default public @NotNull MemoizedFunction2<T1, T2, R> memoize(final int maxSize, final boolean isThreadSafe) {
+        return new MemoizedFunction2<>(this, maxSize, isThreadSafe);
+    }
 }
@@ -0,0 +1,32 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface that represents function from int to int. It is Function1 specialized for ints,
+ * so neither argument nor result is boxed.
+ */
+public interface IntFunction1 {
+    /**
+     * Applies this function to the given argument.
+     * @param arg the function argument
+     * @return the function result
+     */
+    public int apply(int arg);
+
+    /**
+     * Makes a composition of given function and this one.
+     * Apply of a result function is apply of this function, and then apply of given function
+     * to a result of first apply.
+     * @param g given function of one argument
+     * @return function of one argument - composition of this and given one
+     */
+    default public @NotNull IntFunction1 compose(@NotNull final IntFunction1 g) {
+        return new IntFunction1() {
+            @Override
+            public int apply(int arg) {
+                return g.apply(IntFunction1.this.apply(arg));
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface that represents function of two ints which returns int.
+ * It is Function2 specialized for ints, so neither arguments nor result are boxed.
+ */
+public interface IntIntFunction2 {
+    /**
+     * Applies this function to given arguments.
+     * @param arg1 first argument
+     * @param arg2 second argument
+     * @return result of a function applied to given arguments
+     */
+    public int apply(int arg1, int arg2);
+
+    /**
+     * Makes a composition of a given function and this function.
+     * Apply of a result function is apply of this function, and then apply of given function
+     * to a result of first apply.
+     * @param g given function of one argument
+     * @return function of two arguments - composition of this function and given one
+     */
+    default public @NotNull IntIntFunction2 compose(@NotNull final IntFunction1 g) {
+        return new IntIntFunction2() {
+            @Override
+            public int apply(int arg1, int arg2) {
+                return g.apply(IntIntFunction2.this.apply(arg1, arg2));
+            }
+        };
+    }
+
+    /**
+     * Binds first argument of this function.
+     * @param argToBind argument that will be bound
+     * @return function of one argument, where apply() is the same as in this function,
+     * but it uses given parameter as a first argument
+     */
+    default public @NotNull IntFunction1 bind1(final int argToBind) {
+        return new IntFunction1() {
+            @Override
+            public int apply(int arg2) {
+                return IntIntFunction2.this.apply(argToBind, arg2);
+            }
+        };
+    }
+
+    /**
+     * Binds second argument of this function.
+     * @param argToBind argument that will be bound
+     * @return function of one argument, where apply() is the same as in this function,
+     * but it uses given parameter as a second argument
+     */
+    default public @NotNull IntFunction1 bind2(final int argToBind) {
+        return new IntFunction1() {
+            @Override
+            public int apply(int arg1) {
+                return IntIntFunction2.this.apply(arg1, argToBind);
+            }
+        };
+    }
+
+    /**
+     * Fixes first argument of the function, the same as bind1().
+     * @param argToCurry argument that will replace first argument
+     * @return function of one argument; its apply() is the same as apply() of this function,
+     * but first argument is parameter we have got and second argument is free
+     */
+    default public @NotNull IntFunction1 curry(final int argToCurry) {
+        return bind1(argToCurry);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface that represents predicate on ints. Unlike Predicate, it takes int
+ * and returns boolean, so nothing is boxed.
+ */
+public interface IntPredicate {
+    /** Predicate which always returns true. */
+    IntPredicate ALWAYS_TRUE = arg -> true;
+
+    /** Predicate which always returns false. */
+    IntPredicate ALWAYS_FALSE = arg -> false;
+
+    /**
+     * Checks the argument.
+     * @param arg the predicate argument
+     * @return true, if argument satisfies predicate
+     */
+    public boolean apply(int arg);
+
+    /**
+     * Creates predicate; its apply() is lazy logical "or" of this predicate's apply() and given one's.
+     * @param g predicate we are making "or" with
+     * @return predicate with apply() acting like a lazy logical "or" of apply() of this function
+     * and given one
+     */
+    default public @NotNull IntPredicate or(@NotNull final IntPredicate g) {
+        return new IntPredicate() {
+            @Override
+            public boolean apply(int arg) {
+                return IntPredicate.this.apply(arg) || g.apply(arg);
+            }
+        };
+    }
+
+    /**
+     * Creates predicate; its apply() is lazy logical "and" of this predicate's apply() and given one's.
+     * @param g predicate we are making "and" with
+     * @return predicate with apply() acting like a lazy logical "and" of apply() of this function
+     * and given one
+     */
+    default public @NotNull IntPredicate and(@NotNull final IntPredicate g) {
+        return new IntPredicate() {
+            @Override
+            public boolean apply(int arg) {
+                return IntPredicate.this.apply(arg) && g.apply(arg);
+            }
+        };
+    }
+
+    /**
+     * Creates predicate; its apply() is logical "not" used on this function's apply() result.
+     * @return predicate with apply() as in this function, but its result is negated
+     */
+    default public @NotNull IntPredicate not() {
+        return new IntPredicate() {
+            @Override
+            public boolean apply(int arg) {
+                return !IntPredicate.this.apply(arg);
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Lazy "and" or "or" of any number of predicates, kept as a flat array of clauses.
+ * When a junction is joined with another one of the same kind, their clauses are copied
+ * into one array, so a predicate built from N clauses is checked by a loop over N clauses,
+ * not by N nested calls. Building it clause by clause costs O(N) per clause.
+ * @param <T> type of predicate's argument
+ */
+final class JunctionPredicate<T> implements Predicate<T> {
+    /** True for "and", false for "or". */
+    private final boolean isConjunction;
+
+    /** Predicates which are checked from first to last. */
+    private final Predicate<? super T>[] clauses;
+
+    private JunctionPredicate(final boolean isConjunction, @NotNull final Predicate<? super T>[] clauses) {
+        this.isConjunction = isConjunction;
+        this.clauses = clauses;
+    }
+
+    /**
+     * Joins two predicates. Junctions of the same kind are replaced by their clauses.
+     * @param isConjunction true for "and", false for "or"
+     * @param first predicate checked first
+     * @param second predicate checked second
+     * @param <T> type of predicate's argument
+     * @return flat junction of predicates
+     */
+    static <T> @NotNull JunctionPredicate<T> of(final boolean isConjunction,
+                                                @NotNull final Predicate<? super T> first,
+                                                @NotNull final Predicate<? super T> second) {
+        Predicate<? super T>[] firstClauses = clausesOf(isConjunction, first);
+        Predicate<? super T>[] secondClauses = clausesOf(isConjunction, second);
+
+        @SuppressWarnings({"unchecked", "rawtypes"}) //array only keeps predicates on T
+        Predicate<? super T>[] clauses = new Predicate[firstClauses.length + secondClauses.length];
+        System.arraycopy(firstClauses, 0, clauses, 0, firstClauses.length);
+        System.arraycopy(secondClauses, 0, clauses, firstClauses.length, secondClauses.length);
+        return new JunctionPredicate<>(isConjunction, clauses);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) //clauses of junction on a supertype of T take T too
+    private static <T> Predicate<? super T>[] clausesOf(final boolean isConjunction,
+                                                        @NotNull final Predicate<? super T> predicate) {
+        if (predicate instanceof JunctionPredicate && ((JunctionPredicate<?>) predicate).isConjunction == isConjunction) {
+            return ((JunctionPredicate<? super T>) predicate).clauses;
+        }
+        return new Predicate[] {predicate};
+    }
+
+    /**
+     * Checks clauses until one of them decides the result:
+     * false for "and", true for "or". Other clauses are not called.
+     */
+    @Override
+    public @NotNull Boolean apply(T arg) {
+        for (Predicate<? super T> clause : clauses) {
+            if (clause.apply(arg) != isConjunction) {
+                return !isConjunction;
+            }
+        }
+        return isConjunction;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of bounded size which drops least recently used entry when it is full.
+ * It counts hits and misses, so its size can be tuned. In thread-safe mode the map is guarded
+ * by a lock, but values are computed outside of it, so threads missing the same key
+ * at the same time may compute it more than once.
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+final class LruCache<K, V> {
+    /** Entries in order of access, the least recently used first. */
+    private final LinkedHashMap<K, V> entries;
+
+    /** Flag which says map has to be accessed under lock. */
+    private final boolean isThreadSafe;
+
+    /** Number of lookups which found value. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Number of lookups which had to compute value. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates empty cache.
+     * @param maxSize maximal number of entries
+     * @param isThreadSafe true, if cache will be used by many threads
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    LruCache(final int maxSize, final boolean isThreadSafe) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive, but it is " + maxSize + ".");
+        }
+
+        this.isThreadSafe = isThreadSafe;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Finds value of key, or computes and remembers it if it's not in cache.
+     * @param key key to find
+     * @param compute function which computes value of key
+     * @return value of key
+     */
+    V get(final K key, @NotNull final Function1<? super K, ? extends V> compute) {
+        if (isThreadSafe) {
+            synchronized (entries) {
+                V value = entries.get(key);
+                if (value != null || entries.containsKey(key)) {
+                    hits.incrementAndGet();
+                    return value;
+                }
+            }
+
+            misses.incrementAndGet();
+            V value = compute.apply(key);
+            synchronized (entries) {
+                entries.put(key, value);
+            }
+            return value;
+        }
+
+        V value = entries.get(key);
+        if (value != null || entries.containsKey(key)) {
+            hits.incrementAndGet();
+            return value;
+        }
+
+        misses.incrementAndGet();
+        value = compute.apply(key);
+        entries.put(key, value);
+        return value;
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    int size() {
+        if (isThreadSafe) {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+        return entries.size();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Function of one argument which remembers results for recently used arguments.
+ * Arguments are compared by equals(). Cache is bounded and drops least recently used result
+ * when it is full. Numbers of hits and misses are counted to help choosing cache size.
+ * @param <T> type of argument
+ * @param <R> type function's result
+ */
+public final class MemoizedFunction1<T, R> implements Function1<T, R> {
+    /** Function whose results are remembered. */
+    private final Function1<? super T, ? extends R> f;
+
+    /** Results for recently used arguments. */
+    private final LruCache<T, R> cache;
+
+    /**
+     * Wraps function with cache.
+     * @param f function whose results are remembered
+     * @param maxSize maximal number of remembered results
+     * @param isThreadSafe true, if function will be applied by many threads at once
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    public MemoizedFunction1(@NotNull final Function1<? super T, ? extends R> f,
+                             final int maxSize, final boolean isThreadSafe) {
+        this.f = f;
+        this.cache = new LruCache<>(maxSize, isThreadSafe);
+    }
+
+    @Override
+    public R apply(T arg) {
+        return cache.get(arg, f);
+    }
+
+    /**
+     * Returns how many times result was taken from cache.
+     * @return number of hits
+     */
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * Returns how many times result had to be computed.
+     * @return number of misses
+     */
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns how many results are remembered now.
+     * @return size of cache
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Function of two arguments which remembers results for recently used pairs of arguments,
+ * the same way as MemoizedFunction1 does.
+ * @param <T1> type of a first argument
+ * @param <T2> type of a second argument
+ * @param <R> type of a result
+ */
+public final class MemoizedFunction2<T1, T2, R> implements Function2<T1, T2, R> {
+    /** Function whose results are remembered, applied to a pair of arguments. */
+    private final Function1<Arguments<T1, T2>, R> f;
+
+    /** Results for recently used pairs of arguments. */
+    private final LruCache<Arguments<T1, T2>, R> cache;
+
+    /**
+     * Wraps function with cache.
+     * @param f function whose results are remembered
+     * @param maxSize maximal number of remembered results
+     * @param isThreadSafe true, if function will be applied by many threads at once
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    public MemoizedFunction2(@NotNull final Function2<? super T1, ? super T2, ? extends R> f,
+                             final int maxSize, final boolean isThreadSafe) {
+        this.f = args -> f.apply(args.arg1, args.arg2);
+        this.cache = new LruCache<>(maxSize, isThreadSafe);
+    }
+
+    @Override
+    public R apply(T1 arg1, T2 arg2) {
+        return cache.get(new Arguments<>(arg1, arg2), f);
+    }
+
+    /**
+     * Returns how many times result was taken from cache.
+     * @return number of hits
+     */
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * Returns how many times result had to be computed.
+     * @return number of misses
+     */
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns how many results are remembered now.
+     * @return size of cache
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /** Pair of arguments, used as a key of cache. */
+    private static final class Arguments<T1, T2> {
+        private final T1 arg1;
+        private final T2 arg2;
+
+        private Arguments(T1 arg1, T2 arg2) {
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Arguments)) {
+                return false;
+            }
+            Arguments<?, ?> other = (Arguments<?, ?>) obj;
+            return Objects.equals(arg1, other.arg1) && Objects.equals(arg2, other.arg2);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(arg1) + Objects.hashCode(arg2);
+        }
+    }
+}
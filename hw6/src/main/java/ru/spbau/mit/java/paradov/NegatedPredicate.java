@@ -0,0 +1,27 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Logical "not" of a predicate. Negating it again gives back the original predicate
+ * instead of wrapping it once more.
+ * @param <T> type of predicate's argument
+ */
+final class NegatedPredicate<T> implements Predicate<T> {
+    /** Predicate whose result is negated. */
+    private final Predicate<T> predicate;
+
+    NegatedPredicate(@NotNull final Predicate<T> predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public Boolean apply(T arg) {
+        return !predicate.apply(arg);
+    }
+
+    @Override
+    public @NotNull Predicate<T> not() {
+        return predicate;
+    }
+}
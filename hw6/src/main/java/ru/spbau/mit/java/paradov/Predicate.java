@@ -39,46 +39,34 @@ public interface Predicate <T> extends Function1<T, Boolean> {
      * Creates predicate; its apply() is logical "or" of this predicate's apply() and given one's.
      * If apply() of this function have returned true, apply() of given function is not called
      * and true is returned ("or" is lazy).
+     * Chains of "or" are kept as one flat array of predicates, checked by a loop.
      * @param g predicate we are making "or" with
      * @return predicate with apply() acting like a lazy logical "or" of apply() of this function
      * and given one
      */
     default public @NotNull Predicate<T> or(@NotNull Predicate<T> g) {
-        return new Predicate<T>() {
-            @Override
-            public @NotNull Boolean apply(T arg) {
-                return Predicate.this.apply(arg) || g.apply(arg);
-            }
-        };
+        return JunctionPredicate.of(false, this, g);
     }
 
     /**
      * Creates predicate; its apply() is logical "and" of this predicate's apply() and given one's.
      * If apply() of this function have returned false, apply() of given function is not called
      * and false is returned ("and" is lazy).
+     * Chains of "and" are kept as one flat array of predicates, checked by a loop.
      * @param g predicate we are making "and" with
      * @return predicate with apply() acting like a lazy logical "and" of apply() of this function
      * and given one
      */
     default public @NotNull Predicate<T> and(@NotNull Predicate<T> g) {
-        return new Predicate<T>() {
-            @Override
-            public @NotNull Boolean apply(T arg) {
-                return Predicate.this.apply(arg) && g.apply(arg);
-            }
-        };
+        return JunctionPredicate.of(true, this, g);
     }
 
     /**
      * Creates predicate; its apply() is logical "not" used on this function's apply() result.
+     * Negation of negation is the original predicate.
      * @return predicate with apply() as in this function, but its result is negated
      */
     default public @NotNull Predicate<T> not() {
-        return new Predicate<T>() {
-            @Override
-            public Boolean apply(T arg) {
-                return !Predicate.this.apply(arg);
-            }
-        };
+        return new NegatedPredicate<>(this);
     }
 }
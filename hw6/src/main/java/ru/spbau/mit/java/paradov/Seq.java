@@ -0,0 +1,296 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy sequence of elements. Unlike methods of Collections, map(), filter(), takeWhile() and
+ * takeUnless() here don't create lists: they only remember what to do. When a terminal operation
+ * (toList(), first(), foldl(), count() or iteration) is called, every stage becomes one iterator
+ * wrapped around the previous one, and elements go through the whole chain one by one.
+ * So there are no intermediate lists, nothing is allocated per element by the pipeline itself,
+ * and stages like takeWhile() or first() stop reading the source as soon as they can.
+ * Sequence can be iterated many times, every time it reads its source again.
+ * @param <T> type of elements
+ */
+public final class Seq<T> implements Iterable<T> {
+    /** Creates iterators which do the whole pipeline. */
+    private final Iterable<T> pipeline;
+
+    private Seq(@NotNull final Iterable<T> pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Creates sequence of elements of container. Container is not copied,
+     * so its changes are visible in the sequence until a terminal operation is done.
+     * @param container source of elements
+     * @param <T> type of elements
+     * @return sequence of elements of container
+     */
+    public static <T> @NotNull Seq<T> of(@NotNull final Iterable<? extends T> container) {
+        return new Seq<>(() -> new Iterator<T>() {
+            private final Iterator<? extends T> source = container.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return source.next();
+            }
+        });
+    }
+
+    /**
+     * Returns sequence of results of applying function to elements of this sequence.
+     * @param f function that we are applying
+     * @param <R> type of function's applying result
+     * @return lazy sequence of results
+     */
+    public <R> @NotNull Seq<R> map(@NotNull final Function1<? super T, ? extends R> f) {
+        return new Seq<>(() -> new MapIterator<>(f, iterator()));
+    }
+
+    /**
+     * Returns sequence of elements, predicate on which returns true.
+     * @param predicate predicate which checks if element is left in sequence
+     * @return lazy sequence of elements which satisfy predicate
+     */
+    public @NotNull Seq<T> filter(@NotNull final Predicate<? super T> predicate) {
+        return new Seq<>(() -> new FilterIterator<>(predicate, iterator()));
+    }
+
+    /**
+     * Returns sequence of elements from beginning to the first element, predicate on which
+     * returns false, without this element. Elements after it are never read.
+     * @param predicate predicate which we use to stop taking elements
+     * @return lazy prefix of this sequence
+     */
+    public @NotNull Seq<T> takeWhile(@NotNull final Predicate<? super T> predicate) {
+        return new Seq<>(() -> new TakeWhileIterator<>(predicate, true, iterator()));
+    }
+
+    /**
+     * Returns sequence of elements from beginning to the first element, predicate on which
+     * returns true, without this element. Elements after it are never read.
+     * @param predicate predicate which we use to stop taking elements
+     * @return lazy prefix of this sequence
+     */
+    public @NotNull Seq<T> takeUnless(@NotNull final Predicate<? super T> predicate) {
+        return new Seq<>(() -> new TakeWhileIterator<>(predicate, false, iterator()));
+    }
+
+    /**
+     * Returns sequence of at most given number of first elements.
+     * @param maxSize how many elements to take
+     * @return lazy prefix of this sequence
+     * @throws IllegalArgumentException if maxSize is negative
+     */
+    public @NotNull Seq<T> limit(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Negative size " + maxSize + ".");
+        }
+        return new Seq<>(() -> new LimitIterator<>(maxSize, iterator()));
+    }
+
+    /**
+     * Runs the pipeline and puts all its elements in ArrayList.
+     * @return list with elements of sequence
+     */
+    public @NotNull List<T> toList() {
+        ArrayList<T> result = new ArrayList<>();
+        for (T obj : this) {
+            result.add(obj);
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs the pipeline until the first element.
+     * @return first element of sequence
+     * @throws NoSuchElementException if sequence is empty
+     */
+    public T first() {
+        return iterator().next();
+    }
+
+    /**
+     * Combines elements of sequence from left to right, as Collections.foldl() does.
+     * @param f function we use to combine elements
+     * @param initialValue initial value; result of combining zero elements
+     * @param <R> type of result value
+     * @return result of combining sequence into value
+     */
+    public <R> R foldl(@NotNull final Function2<? super R, ? super T, ? extends R> f, final R initialValue) {
+        R result = initialValue;
+        for (T obj : this) {
+            result = f.apply(result, obj);
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs the pipeline and counts elements.
+     * @return number of elements in sequence
+     */
+    public int count() {
+        int result = 0;
+        for (Iterator<T> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+            result++;
+        }
+
+        return result;
+    }
+
+    @Override
+    public @NotNull Iterator<T> iterator() {
+        return pipeline.iterator();
+    }
+
+    /** Iterator that applies function to elements of upstream. */
+    private static final class MapIterator<T, R> implements Iterator<R> {
+        private final Function1<? super T, ? extends R> f;
+        private final Iterator<T> upstream;
+
+        private MapIterator(Function1<? super T, ? extends R> f, Iterator<T> upstream) {
+            this.f = f;
+            this.upstream = upstream;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return upstream.hasNext();
+        }
+
+        @Override
+        public R next() {
+            return f.apply(upstream.next());
+        }
+    }
+
+    /**
+     * Base of iterators that have to look at the next element of upstream before they know
+     * if there is one. Found element is kept until next() returns it.
+     */
+    private abstract static class LookaheadIterator<T> implements Iterator<T> {
+        /** Element that next() returns, valid if isReady is true. */
+        private T nextElement;
+
+        /** Flag that says nextElement is found and not returned yet. */
+        private boolean isReady = false;
+
+        /** Flag that says there are no more elements. */
+        private boolean isFinished = false;
+
+        /** Reads upstream until element to return; calls finish() if there is no such element. */
+        abstract T findNext();
+
+        final T finish() {
+            isFinished = true;
+            return null;
+        }
+
+        @Override
+        public final boolean hasNext() {
+            if (!isReady && !isFinished) {
+                nextElement = findNext();
+                isReady = !isFinished;
+            }
+            return isReady;
+        }
+
+        @Override
+        public final T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            isReady = false;
+            T result = nextElement;
+            nextElement = null;
+            return result;
+        }
+    }
+
+    /** Iterator over elements of upstream which satisfy predicate. */
+    private static final class FilterIterator<T> extends LookaheadIterator<T> {
+        private final Predicate<? super T> predicate;
+        private final Iterator<T> upstream;
+
+        private FilterIterator(Predicate<? super T> predicate, Iterator<T> upstream) {
+            this.predicate = predicate;
+            this.upstream = upstream;
+        }
+
+        @Override
+        T findNext() {
+            while (upstream.hasNext()) {
+                T obj = upstream.next();
+                if (predicate.apply(obj)) {
+                    return obj;
+                }
+            }
+            return finish();
+        }
+    }
+
+    /**
+     * Iterator over elements of upstream until predicate returns value different from expected.
+     * After that upstream is not touched anymore.
+     */
+    private static final class TakeWhileIterator<T> extends LookaheadIterator<T> {
+        private final Predicate<? super T> predicate;
+        private final boolean expected;
+        private final Iterator<T> upstream;
+
+        private TakeWhileIterator(Predicate<? super T> predicate, boolean expected, Iterator<T> upstream) {
+            this.predicate = predicate;
+            this.expected = expected;
+            this.upstream = upstream;
+        }
+
+        @Override
+        T findNext() {
+            if (upstream.hasNext()) {
+                T obj = upstream.next();
+                if (predicate.apply(obj) == expected) {
+                    return obj;
+                }
+            }
+            return finish();
+        }
+    }
+
+    /** Iterator over at most given number of elements of upstream. */
+    private static final class LimitIterator<T> implements Iterator<T> {
+        private int remaining;
+        private final Iterator<T> upstream;
+
+        private LimitIterator(int remaining, Iterator<T> upstream) {
+            this.remaining = remaining;
+            this.upstream = upstream;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && upstream.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return upstream.next();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.spbau.mit.java.paradov;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface that represents function of one argument which returns int.
+ * It is Function1 specialized for int result, so result is not boxed.
+ * @param <T> type of argument
+ */
+public interface ToIntFunction1 <T> {
+    /**
+     * Applies this function to the given argument.
+     * @param arg the function argument
+     * @return the function result
+     */
+    public int apply(T arg);
+
+    /**
+     * Makes a composition of given function and this one.
+     * Apply of a result function is apply of this function, and then apply of given function
+     * to a result of first apply.
+     * @param g given function from int to int
+     * @return function of one argument - composition of this and given one
+     */
+    default public @NotNull ToIntFunction1<T> compose(@NotNull final IntFunction1 g) {
+        return new ToIntFunction1<T>() {
+            @Override
+            public int apply(T arg) {
+                return g.apply(ToIntFunction1.this.apply(arg));
+            }
+        };
+    }
+}
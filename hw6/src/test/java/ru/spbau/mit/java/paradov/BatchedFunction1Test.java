@@ -0,0 +1,48 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of BatchedFunction1 class. */
+public class BatchedFunction1Test {
+    /** Tests if Collections.map() passes arguments to bulk function in batches of given size. */
+    @Test
+    public void testMapPassesArgumentsInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        Function1<List<Integer>, List<String>> bulk = args -> {
+            batchSizes.add(args.size());
+            List<String> results = new ArrayList<>();
+            for (int arg : args) {
+                results.add(Integer.toString(arg * 3));
+            }
+            return results;
+        };
+        Function1<Integer, String> tripled = Function1.batched(bulk, 2);
+
+        List<String> actual = Collections.map(tripled, Arrays.asList(4, 8, 15, 16, 23));
+
+        assertEquals(Arrays.asList("12", "24", "45", "48", "69"), actual);
+        assertEquals(Arrays.asList(2, 2, 1), batchSizes);
+    }
+
+    /** Tests if single apply() works through bulk function. */
+    @Test
+    public void testSingleApply() {
+        Function1<List<Integer>, List<Integer>> bulk = args -> Arrays.asList(args.get(0) + 1);
+        Function1<Integer, Integer> increment = Function1.batched(bulk, 10);
+
+        assertEquals(42, (int) increment.apply(41));
+    }
+
+    /** Tests if bulk function returning wrong number of results is reported. */
+    @Test(expected = IllegalStateException.class)
+    public void testWrongNumberOfResults() {
+        Function1<List<Integer>, List<Integer>> bulk = args -> Arrays.asList(1);
+        Collections.map(Function1.batched(bulk, 10), Arrays.asList(1, 2));
+    }
+}
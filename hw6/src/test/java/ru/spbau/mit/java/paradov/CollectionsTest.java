@@ -2,7 +2,11 @@ package ru.spbau.mit.java.paradov;
 
 import org.junit.Test;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 import static ru.spbau.mit.java.paradov.Collections.*;
@@ -171,4 +175,86 @@ public class CollectionsTest {
         assertEquals(-2, (long) result2);
     }
 
-}
\ No newline at end of file
+    /** Tests if foldr() combines elements from the right for lists and other collections. */
+    @Test
+    public void testFoldrKeepsOrder() {
+        Function2<String, String, String> prepend = (arg1, arg2) -> arg1 + arg2;
+        List<String> data = Arrays.asList("a", "b", "c");
+
+        assertEquals("abc_", foldr(prepend, "_", data));
+        assertEquals("abc_", foldr(prepend, "_", new LinkedList<>(data)));
+        assertEquals("abc_", foldr(prepend, "_", new ArrayDeque<>(data)));
+    }
+
+    /** Tests if foldr() works on collections too big for recursion. */
+    @Test
+    public void testFoldrOnBigCollections() {
+        Function2<Integer, Integer, Integer> countOnes = (arg1, arg2) -> arg1 == 1 ? arg2 + 1 : arg2;
+        List<Integer> ones = new ArrayList<>(java.util.Collections.nCopies(1000000, 1));
+
+        assertEquals(1000000, (int) foldr(countOnes, 0, ones));
+        assertEquals(1000000, (int) foldr(countOnes, 0, new LinkedList<>(ones)));
+        assertEquals(1000000, (int) foldr(countOnes, 0, new ArrayDeque<>(ones)));
+    }
+
+    /** Tests if parallelFoldl() gives the same result as foldl() and keeps order of elements. */
+    @Test
+    public void testParallelFoldl() {
+        Function2<String, Integer, String> append = (arg1, arg2) -> arg1 + arg2 % 10;
+        Function2<String, String, String> concat = (arg1, arg2) -> arg1 + arg2;
+        List<Integer> data = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            data.add(i);
+        }
+
+        String expected = foldl(append, "", data);
+        assertEquals(expected, parallelFoldl(append, concat, "", data));
+        assertEquals(expected, parallelFoldl(append, concat, "", new LinkedList<>(data)));
+    }
+
+    /** Tests if parallelReduce() sums many numbers as foldl() does. */
+    @Test
+    public void testParallelReduce() {
+        Function2<Long, Long, Long> sum = (arg1, arg2) -> arg1 + arg2;
+        List<Long> data = new ArrayList<>();
+        for (long i = 0; i < 100000; i++) {
+            data.add(i);
+        }
+
+        assertEquals(foldl(sum, 0L, data), parallelReduce(sum, 0L, data));
+        assertEquals(0L, (long) parallelReduce(sum, 0L, new ArrayList<>()));
+    }
+
+    /** Tests if map(), filter(), takeWhile() and takeUnless() on arrays of ints work as on lists. */
+    @Test
+    public void testOperationsOnIntArrays() {
+        int[] data = {4, 8, 15, 16, 23, 42};
+        IntFunction1 tripled = arg -> arg * 3;
+        IntPredicate isEven = arg -> arg % 2 == 0;
+
+        assertArrayEquals(new int[] {12, 24, 45, 48, 69, 126}, map(tripled, data));
+        assertArrayEquals(new int[] {4, 8, 16, 42}, filter(isEven, data));
+        assertArrayEquals(new int[] {4, 8}, takeWhile(isEven, data));
+        assertArrayEquals(new int[] {}, takeUnless(isEven, data));
+        assertArrayEquals(new int[] {15}, takeUnless(isEven, new int[] {15, 16, 17}));
+    }
+
+    /** Tests if folds on arrays of ints combine elements in the right order. */
+    @Test
+    public void testFoldsOnIntArrays() {
+        IntIntFunction2 subtract = (arg1, arg2) -> arg1 - arg2;
+        int[] data = {1, 2, 3};
+
+        assertEquals(((10 - 1) - 2) - 3, foldl(subtract, 10, data));
+        assertEquals(1 - (2 - (3 - 10)), foldr(subtract, 10, data));
+        assertEquals(10, foldl(subtract, 10, new int[0]));
+    }
+
+    /** Tests if mapToInt() applies function to all elements of container. */
+    @Test
+    public void testMapToInt() {
+        ToIntFunction1<String> length = String::length;
+
+        assertArrayEquals(new int[] {3, 6, 0}, mapToInt(length, Arrays.asList("map", "filter", "")));
+    }
+}
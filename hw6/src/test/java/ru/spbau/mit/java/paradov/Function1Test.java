@@ -71,4 +71,17 @@ public class Function1Test {
         assertNull(f1.compose(f2).apply(null));
         assertNotNull(f1.compose(f2).apply(18));
     }
-}
\ No newline at end of file
+
+    /** Tests if a long chain of compositions is applied without deep recursion. */
+    @Test
+    public void testLongCompositionChain() throws Throwable {
+        Function1<Integer, Integer> increment = arg -> arg + 1;
+        Function1<Integer, Integer> f = increment;
+        for (int i = 1; i < 10000; i++) {
+            f = i % 2 == 0 ? f.compose(increment) : increment.compose(f);
+        }
+
+        Function1<Integer, Integer> chain = f;
+        TestUtils.runWithSmallStack(() -> assertEquals(10000, (int) chain.apply(0)));
+    }
+}
@@ -110,4 +110,17 @@ public class Function2Test {
         assertEquals("64", powerOfTwo.apply(6));
         assertEquals("4096", powerOfTwo.apply(12));
     }
-}
\ No newline at end of file
+
+    /** Tests if function of two arguments composed with a long chain is applied without deep recursion. */
+    @Test
+    public void testLongCompositionChain() throws Throwable {
+        Function1<Integer, Integer> increment = arg -> arg + 1;
+        Function2<Integer, Integer, Integer> f = (arg1, arg2) -> arg1 * arg2;
+        for (int i = 0; i < 10000; i++) {
+            f = f.compose(increment);
+        }
+
+        Function2<Integer, Integer, Integer> chain = f;
+        TestUtils.runWithSmallStack(() -> assertEquals(10006, (int) chain.apply(2, 3)));
+    }
+}
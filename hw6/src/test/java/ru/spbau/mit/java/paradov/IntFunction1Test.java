@@ -0,0 +1,26 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of IntFunction1 class. */
+public class IntFunction1Test {
+    /** Tests if apply() of a function works as expected. */
+    @Test
+    public void testApplyWorksCorrectly() {
+        IntFunction1 f = arg -> arg * 2;
+
+        assertEquals(42, f.apply(21));
+    }
+
+    /** Tests if composition of functions applies this function first. */
+    @Test
+    public void testApplyOfCompositionWorksCorrectly() {
+        IntFunction1 f1 = arg -> arg + 1;
+        IntFunction1 f2 = arg -> arg * 3;
+
+        assertEquals(9, f1.compose(f2).apply(2));
+        assertEquals(7, f2.compose(f1).apply(2));
+    }
+}
@@ -0,0 +1,35 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of IntIntFunction2 class. */
+public class IntIntFunction2Test {
+    /** Tests if apply() of a function works as expected. */
+    @Test
+    public void testApplyWorksCorrectly() {
+        IntIntFunction2 f = (arg1, arg2) -> arg1 - arg2;
+
+        assertEquals(42, f.apply(50, 8));
+    }
+
+    /** Tests if composition of functions works as expected. */
+    @Test
+    public void testApplyOfCompositionWorksCorrectly() {
+        IntIntFunction2 f = (arg1, arg2) -> arg1 - arg2;
+        IntFunction1 negated = arg -> -arg;
+
+        assertEquals(-42, f.compose(negated).apply(50, 8));
+    }
+
+    /** Tests if bind1(), bind2() and curry() fix the right arguments. */
+    @Test
+    public void testBind() {
+        IntIntFunction2 f = (arg1, arg2) -> arg1 - arg2;
+
+        assertEquals(8, f.bind1(10).apply(2));
+        assertEquals(-8, f.bind2(10).apply(2));
+        assertEquals(8, f.curry(10).apply(2));
+    }
+}
@@ -0,0 +1,39 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of IntPredicate class. */
+public class IntPredicateTest {
+    /** Tests if constant predicates always return their values. */
+    @Test
+    public void testConstantPredicates() {
+        assertTrue(IntPredicate.ALWAYS_TRUE.apply(42));
+        assertFalse(IntPredicate.ALWAYS_FALSE.apply(42));
+    }
+
+    /** Tests if or(), and() and not() work as logical operations. */
+    @Test
+    public void testLogicalOperations() {
+        IntPredicate isEven = arg -> arg % 2 == 0;
+        IntPredicate isPositive = arg -> arg > 0;
+
+        assertTrue(isEven.and(isPositive).apply(2));
+        assertFalse(isEven.and(isPositive).apply(-2));
+        assertTrue(isEven.or(isPositive).apply(-2));
+        assertFalse(isEven.or(isPositive).apply(-1));
+        assertTrue(isEven.not().apply(1));
+    }
+
+    /** Tests if or() and and() don't call second predicate when result is known. */
+    @Test
+    public void testLogicalOperationsAreLazy() {
+        IntPredicate fails = arg -> {
+            throw new AssertionError("Second predicate was called.");
+        };
+
+        assertTrue(IntPredicate.ALWAYS_TRUE.or(fails).apply(0));
+        assertFalse(IntPredicate.ALWAYS_FALSE.and(fails).apply(0));
+    }
+}
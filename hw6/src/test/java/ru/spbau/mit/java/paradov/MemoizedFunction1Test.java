@@ -0,0 +1,105 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of MemoizedFunction1 class. */
+public class MemoizedFunction1Test {
+    /** Tests if result is computed once and then taken from cache. */
+    @Test
+    public void testResultIsComputedOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        Function1<Integer, Integer> doubled = arg -> {
+            calls.incrementAndGet();
+            return arg * 2;
+        };
+        MemoizedFunction1<Integer, Integer> memoized = doubled.memoize(10);
+
+        assertEquals(42, (int) memoized.apply(21));
+        assertEquals(42, (int) memoized.apply(21));
+        assertEquals(1, calls.get());
+        assertEquals(1, memoized.getHits());
+        assertEquals(1, memoized.getMisses());
+    }
+
+    /** Tests if null results are remembered too. */
+    @Test
+    public void testNullResultIsRemembered() {
+        AtomicInteger calls = new AtomicInteger();
+        Function1<String, String> nothing = arg -> {
+            calls.incrementAndGet();
+            return null;
+        };
+        MemoizedFunction1<String, String> memoized = nothing.memoize(10);
+
+        assertNull(memoized.apply("a"));
+        assertNull(memoized.apply("a"));
+        assertEquals(1, calls.get());
+    }
+
+    /** Tests if the least recently used result is dropped when cache is full. */
+    @Test
+    public void testLeastRecentlyUsedResultIsDropped() {
+        List<Integer> computed = new ArrayList<>();
+        Function1<Integer, Integer> identity = arg -> {
+            computed.add(arg);
+            return arg;
+        };
+        MemoizedFunction1<Integer, Integer> memoized = identity.memoize(2);
+
+        memoized.apply(1);
+        memoized.apply(2);
+        memoized.apply(1);
+        memoized.apply(3);
+        memoized.apply(1);
+        memoized.apply(2);
+
+        assertEquals(2, memoized.getCacheSize());
+        assertEquals(2, memoized.getHits());
+        assertEquals(4, memoized.getMisses());
+        assertEquals(Arrays.asList(1, 2, 3, 2), computed);
+    }
+
+    /** Tests if non-positive cache size is rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCacheSize() {
+        Function1<Integer, Integer> identity = arg -> arg;
+        identity.memoize(0);
+    }
+
+    /** Tests if thread-safe cache counts every call and keeps its size bound under concurrent use. */
+    @Test
+    public void testThreadSafeMode() throws InterruptedException {
+        Function1<Integer, Integer> squared = arg -> arg * arg;
+        MemoizedFunction1<Integer, Integer> memoized = squared.memoize(50, true);
+        AtomicInteger wrongResults = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    int arg = i % 100;
+                    if (memoized.apply(arg) != arg * arg) {
+                        wrongResults.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, wrongResults.get());
+        assertEquals(40000, memoized.getHits() + memoized.getMisses());
+        assertTrue(memoized.getCacheSize() <= 50);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of MemoizedFunction2 class. */
+public class MemoizedFunction2Test {
+    /** Tests if results are remembered for pairs of arguments, including nulls. */
+    @Test
+    public void testResultsAreRememberedForPairs() {
+        AtomicInteger calls = new AtomicInteger();
+        Function2<String, Integer, String> repeat = (arg1, arg2) -> {
+            calls.incrementAndGet();
+            return arg1 + arg2;
+        };
+        MemoizedFunction2<String, Integer, String> memoized = repeat.memoize(10);
+
+        assertEquals("a1", memoized.apply("a", 1));
+        assertEquals("a2", memoized.apply("a", 2));
+        assertEquals("a1", memoized.apply("a", 1));
+        assertEquals("null1", memoized.apply(null, 1));
+        assertEquals("null1", memoized.apply(null, 1));
+
+        assertEquals(3, calls.get());
+        assertEquals(2, memoized.getHits());
+        assertEquals(3, memoized.getMisses());
+        assertEquals(3, memoized.getCacheSize());
+    }
+}
@@ -107,6 +107,39 @@ public class PredicateTest {
         assertFalse(p.and(pDangerous).apply("don't fall"));
     }
 
+    /** Tests if predicates made of many clauses are checked without deep recursion and stay lazy. */
+    @Test
+    public void testLongChainsOfClauses() throws Throwable {
+        Predicate<Integer> and = arg -> arg >= 0;
+        Predicate<Integer> or = arg -> arg == 0;
+        for (int i = 1; i < 10000; i++) {
+            int bound = i;
+            Predicate<Integer> notEqual = arg -> arg != bound;
+            Predicate<Integer> equal = arg -> arg == bound;
+            and = i % 2 == 0 ? and.and(notEqual) : notEqual.and(and);
+            or = i % 2 == 0 ? or.or(equal) : equal.or(or);
+        }
+        Predicate<Integer> pDangerous = arg -> null;
+
+        Predicate<Integer> conjunction = and;
+        Predicate<Integer> disjunction = or;
+        TestUtils.runWithSmallStack(() -> {
+            assertTrue(conjunction.apply(10000));
+            assertFalse(conjunction.apply(5000));
+            assertFalse(conjunction.apply(-1));
+            assertTrue(disjunction.apply(5000));
+            assertFalse(disjunction.apply(10000));
+            assertFalse(conjunction.and(pDangerous).apply(5000));
+            assertTrue(disjunction.or(pDangerous).apply(0));
+        });
+    }
 
+    /** Tests if negation of negation works as original predicate. */
+    @Test
+    public void testDoubleNegation() {
+        Predicate<Integer> isOdd = arg -> arg % 2 != 0;
 
-}
\ No newline at end of file
+        assertSame(isOdd, isOdd.not().not());
+        assertFalse(isOdd.not().apply(1));
+    }
+}
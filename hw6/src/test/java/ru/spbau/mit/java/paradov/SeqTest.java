@@ -0,0 +1,108 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of Seq class. */
+public class SeqTest {
+    /** Tests if map(), filter() and takeWhile() in chain give the same result as methods of Collections. */
+    @Test
+    public void testChainGivesSameResultAsCollections() {
+        List<Integer> data = Arrays.asList(4, 8, 15, 16, 23, 42, 1, 2);
+        Function1<Integer, Integer> doubled = arg -> arg * 2;
+        Predicate<Integer> isDivisibleBy4 = arg -> arg % 4 == 0;
+        Predicate<Integer> isLess50 = arg -> arg < 50;
+
+        List<Integer> expected = Collections.takeWhile(isLess50,
+                Collections.filter(isDivisibleBy4, Collections.map(doubled, data)));
+        List<Integer> actual = Seq.of(data).map(doubled).filter(isDivisibleBy4).takeWhile(isLess50).toList();
+
+        assertEquals(Arrays.asList(8, 16, 32), actual);
+        assertEquals(expected, actual);
+    }
+
+    /** Tests if takeUnless() stops on the first element satisfying predicate. */
+    @Test
+    public void testTakeUnless() {
+        Predicate<String> isEmpty = String::isEmpty;
+
+        List<String> actual = Seq.of(Arrays.asList("map", "filter", "", "foldl")).takeUnless(isEmpty).toList();
+
+        assertEquals(Arrays.asList("map", "filter"), actual);
+    }
+
+    /** Tests if nothing is computed before terminal operation, and only needed elements are computed after. */
+    @Test
+    public void testPipelineIsLazyAndShortCircuits() {
+        List<Integer> applied = new ArrayList<>();
+        Function1<Integer, Integer> recordingIdentity = arg -> {
+            applied.add(arg);
+            return arg;
+        };
+        Predicate<Integer> isLess3 = arg -> arg < 3;
+
+        Seq<Integer> seq = Seq.of(Arrays.asList(1, 2, 3, 4, 5)).map(recordingIdentity).takeWhile(isLess3);
+        assertTrue(applied.isEmpty());
+
+        assertEquals(1, (int) seq.first());
+        assertEquals(Arrays.asList(1), applied);
+
+        applied.clear();
+        assertEquals(Arrays.asList(1, 2), seq.toList());
+        assertEquals(Arrays.asList(1, 2, 3), applied);
+    }
+
+    /** Tests if limit() takes at most given number of elements. */
+    @Test
+    public void testLimit() {
+        Seq<Integer> seq = Seq.of(Arrays.asList(1, 2, 3));
+
+        assertEquals(Arrays.asList(1, 2), seq.limit(2).toList());
+        assertEquals(3, seq.limit(5).count());
+        assertEquals(0, seq.limit(0).count());
+    }
+
+    /** Tests if foldl() of sequence works as foldl() of Collections. */
+    @Test
+    public void testFoldl() {
+        Function2<String, Integer, String> append = (acc, arg) -> acc + arg;
+
+        assertEquals("_123", Seq.of(Arrays.asList(1, 2, 3)).foldl(append, "_"));
+    }
+
+    /** Tests if sequence can be iterated many times and sees changes of its source. */
+    @Test
+    public void testSequenceCanBeRunAgain() {
+        List<Integer> data = new ArrayList<>(Arrays.asList(1, 2, 3));
+        Predicate<Integer> isOdd = arg -> arg % 2 == 1;
+        Seq<Integer> odd = Seq.of(data).filter(isOdd);
+
+        assertEquals(2, odd.count());
+        data.add(5);
+        assertEquals(Arrays.asList(1, 3, 5), odd.toList());
+    }
+
+    /** Tests if iterator of exhausted sequence throws NoSuchElementException. */
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorThrowsAfterEnd() {
+        Predicate<Integer> isOdd = arg -> arg % 2 == 1;
+        Iterator<Integer> iterator = Seq.of(Arrays.asList(1, 2)).filter(isOdd).iterator();
+
+        assertEquals(1, (int) iterator.next());
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    /** Tests if first() of empty sequence throws NoSuchElementException. */
+    @Test(expected = NoSuchElementException.class)
+    public void testFirstOfEmptySequence() {
+        Seq.of(new ArrayList<Integer>()).first();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.spbau.mit.java.paradov;
+
+/** Helpers shared by tests of functions. */
+final class TestUtils {
+    private TestUtils() {
+    }
+
+    /**
+     * Runs action in a thread with small stack, so that deep recursion fails there.
+     * Error of action is rethrown.
+     */
+    static void runWithSmallStack(Runnable action) throws Throwable {
+        Throwable[] error = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                action.run();
+            } catch (Throwable e) {
+                error[0] = e;
+            }
+        }, "small stack", 1 << 16);
+        thread.start();
+        thread.join();
+        if (error[0] != null) {
+            throw error[0];
+        }
+    }
+}
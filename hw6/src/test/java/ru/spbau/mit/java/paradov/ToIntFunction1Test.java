@@ -0,0 +1,25 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Class that tests functionality of ToIntFunction1 class. */
+public class ToIntFunction1Test {
+    /** Tests if apply() of a function works as expected. */
+    @Test
+    public void testApplyWorksCorrectly() {
+        ToIntFunction1<String> length = String::length;
+
+        assertEquals(5, length.apply("Forty"));
+    }
+
+    /** Tests if composition with function of ints applies this function first. */
+    @Test
+    public void testApplyOfCompositionWorksCorrectly() {
+        ToIntFunction1<String> length = String::length;
+        IntFunction1 squared = arg -> arg * arg;
+
+        assertEquals(25, length.compose(squared).apply("Forty"));
+    }
+}
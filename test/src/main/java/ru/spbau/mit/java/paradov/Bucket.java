@@ -0,0 +1,21 @@
+package ru.spbau.mit.java.paradov;
+
+/**
+ * Bucket of MyHashMap. Every bucket keeps its nodes linked through
+ * {@code next}/{@code prev}, so the map can walk them in place.
+ */
+interface Bucket<K, V> {
+    /** Returns the first node of this bucket or null if it is empty. */
+    MyHashMap.Node<K, V> getHead();
+
+    int size();
+
+    /** Returns node with given key or null if there is none. */
+    MyHashMap.Node<K, V> find(Object key, int hash);
+
+    /** Adds a node whose key is not in this bucket yet. */
+    void add(MyHashMap.Node<K, V> node);
+
+    /** Removes a node that belongs to this bucket. */
+    void unlink(MyHashMap.Node<K, V> node);
+}
@@ -1,35 +1,102 @@
 package ru.spbau.mit.java.paradov;
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Hash map with separate chaining. Every entry is a single node which is linked into its bucket,
+ * so key, value and entry views are live and their iterators walk the buckets in place.
+ * Null keys are not supported, null values are.
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V>, Iterable<Map.Entry<K, V>> {
+    private int size = 0;
 
-import static java.lang.Math.abs;
+    private Bucket<K, V>[] table;
 
-public class MyHashMap<K, V> implements Map, Iterable<Map.Entry<K, V>> {
-    private int size = 0;
+    private int numOfLists = 16;
 
-    private MyList[] table;
+    private final int MAX_SIZE_PER_LIST = 16;
 
-    private MyList allElements;
+    private static final int TREEIFY_THRESHOLD = 2 * 16;
 
-    private int numOfElements = 0;
+    private static final int UNTREEIFY_THRESHOLD = 16;
 
-    private int numOfLists = 16;
+    private final int seed = ThreadLocalRandom.current().nextInt();
 
-    private final int MAX_SIZE_PER_LIST = 16;
+    /** Number of structural modifications, used by iterators to fail fast. */
+    private int modCount = 0;
+
+    private Set<K> keySet;
+
+    private Collection<V> values;
+
+    private Set<Entry<K, V>> entrySet;
 
     public MyHashMap() {
-        table = new MyList[numOfLists];
+        table = newTable(numOfLists);
+    }
+
+    public MyHashMap(Map<? extends K, ? extends V> map) {
+        this();
+        putAll(map);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> Bucket<K, V>[] newTable(int numOfLists) {
+        Bucket<K, V>[] table = (Bucket<K, V>[]) new Bucket[numOfLists];
 
         for (int i = 0; i < numOfLists; i++) {
-            table[i] = new MyList();
+            table[i] = new MyList<>();
         }
+
+        return table;
+    }
+
+    private int hash(Object key) {
+        int h = key.hashCode() ^ seed;
+        h = (h ^ (h >>> 16)) * 0x85ebca6b;
+        h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private static int index(int hash, int mod) {
+        return (hash & 0x7fffffff) % mod;
+    }
+
+    private Node<K, V> findNode(Object key) {
+        int h = hash(key);
+        return table[index(h, numOfLists)].find(key, h);
     }
 
-    private int hash(Object key, int mod) {
-        return abs(key.hashCode()) % mod;
+    /** Adds a new node to the bucket with given index, then treeifies the bucket or resizes the table if needed. */
+    private void addNode(int i, Node<K, V> node) {
+        table[i].add(node);
+        size++;
+        modCount++;
+
+        if (table[i].size() > TREEIFY_THRESHOLD && table[i] instanceof MyList)
+            table[i] = new MyTree<>(table[i].getHead(), table[i].size());
+
+        if (size > MAX_SIZE_PER_LIST * numOfLists)
+            resize(MAX_SIZE_PER_LIST * numOfLists);
+    }
+
+    private void removeNode(int i, Node<K, V> node) {
+        table[i].unlink(node);
+        size--;
+        modCount++;
+
+        if (table[i].size() < UNTREEIFY_THRESHOLD && table[i] instanceof MyTree)
+            table[i] = new MyList<>(table[i].getHead(), table[i].size());
+    }
+
+    private void removeNode(Node<K, V> node) {
+        removeNode(index(node.hash, numOfLists), node);
     }
 
     @Override
@@ -44,101 +111,474 @@ public class MyHashMap<K, V> implements Map, Iterable<Map.Entry<K, V>> {
 
     @Override
     public boolean containsKey(Object o) {
-        return table[hash(o, numOfLists)].contains(o);
+        return findNode(o) != null;
     }
 
     @Override
     public boolean containsValue(Object o) {
-        for (int i = 0; i < numOfLists; i++) {
-            if (table[i].containsValue(o)) {
-                return true;
+        for (Bucket<K, V> bucket : table) {
+            for (Node<K, V> cur = bucket.getHead(); cur != null; cur = cur.next) {
+                if (Objects.equals(o, cur.value))
+                    return true;
             }
         }
         return false;
     }
 
     @Override
-    public Object get(Object o) {
-        return table[hash(o, numOfLists)].get(o);
+    public V get(Object o) {
+        Node<K, V> node = findNode(o);
+        return node != null ? node.value : null;
     }
 
     @Override
-    public Object put(Object o, Object o2) {
-        if (numOfElements > MAX_SIZE_PER_LIST * numOfLists)
-            resize(MAX_SIZE_PER_LIST * numOfLists);
+    public V getOrDefault(Object o, V defaultValue) {
+        Node<K, V> node = findNode(o);
+        return node != null ? node.value : defaultValue;
+    }
 
-        Object toReturn = table[hash(o, numOfLists)].put(o, o2);
-        if (toReturn == null) {
-            numOfElements++;
+    @Override
+    public V put(K key, V value) {
+        int h = hash(key);
+        int i = index(h, numOfLists);
+        Node<K, V> node = table[i].find(key, h);
+        if (node != null) {
+            V oldVal = node.value;
+            node.value = value;
+            return oldVal;
         }
 
-        return toReturn;
+        addNode(i, new Node<>(key, h, value));
+        return null;
     }
 
     @Override
-    public Object remove(Object o) {
-        Object toReturn = table[hash(o, numOfLists)].remove(o);
-
-        if (toReturn != null)
-            numOfElements--;
+    public V putIfAbsent(K key, V value) {
+        int h = hash(key);
+        int i = index(h, numOfLists);
+        Node<K, V> node = table[i].find(key, h);
+        if (node != null) {
+            V oldVal = node.value;
+            if (oldVal == null)
+                node.value = value;
+            return oldVal;
+        }
 
-        return toReturn;
+        addNode(i, new Node<>(key, h, value));
+        return null;
     }
 
     @Override
-    public void putAll(Map map) {
+    public V remove(Object o) {
+        int h = hash(o);
+        int i = index(h, numOfLists);
+        Node<K, V> node = table[i].find(o, h);
+        if (node == null)
+            return null;
+
+        removeNode(i, node);
+        return node.value;
+    }
 
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
     public void clear() {
-        table = new MyList[numOfLists];
+        table = newTable(numOfLists);
+        size = 0;
+        modCount++;
+    }
+
+    /** Moves every node into a new table. Nodes themselves are reused, not copied. */
+    private void resize(int newNumOfLists) {
+        Bucket<K, V>[] newTable = newTable(newNumOfLists);
 
         for (int i = 0; i < numOfLists; i++) {
-            table[i] = new MyList();
+            Node<K, V> cur = table[i].getHead();
+            while (cur != null) {
+                Node<K, V> next = cur.next;
+                newTable[index(cur.hash, newNumOfLists)].add(cur);
+                cur = next;
+            }
+        }
+
+        for (int i = 0; i < newNumOfLists; i++) {
+            if (newTable[i].size() > TREEIFY_THRESHOLD)
+                newTable[i] = new MyTree<>(newTable[i].getHead(), newTable[i].size());
         }
 
-        numOfElements = 0;
+        table = newTable;
+        numOfLists = newNumOfLists;
+        modCount++;
     }
 
-    private void resize(int newNumOfLists) {
-        MyList[] newTable = new MyList[newNumOfLists];
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = modCount;
+        for (Bucket<K, V> bucket : table) {
+            for (Node<K, V> cur = bucket.getHead(); cur != null; cur = cur.next) {
+                action.accept(cur.key, cur.value);
+            }
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
 
-        for (int i = 0; i < newNumOfLists; i++) {
-            newTable[i] = new MyList();
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        int expectedModCount = modCount;
+        for (Bucket<K, V> bucket : table) {
+            for (Node<K, V> cur = bucket.getHead(); cur != null; cur = cur.next) {
+                cur.value = function.apply(cur.key, cur.value);
+            }
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
         }
+    }
 
-        for (int i = 0; i < numOfLists; i++) {
-            while (table[i].getHead() != null) {
-                int newListNum = hash(table[i].getHeadKey(), newNumOfLists);
-                newTable[newListNum].put(table[i].getHeadKey(), table[i].getHeadValue());
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        int h = hash(key);
+        int i = index(h, numOfLists);
+        Node<K, V> node = table[i].find(key, h);
+        if (node != null && node.value != null)
+            return node.value;
+
+        int expectedModCount = modCount;
+        V newValue = mappingFunction.apply(key);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        if (newValue == null)
+            return null;
+
+        if (node != null) {
+            node.value = newValue;
+        } else {
+            addNode(i, new Node<>(key, h, newValue));
+        }
+        return newValue;
+    }
 
-                table[i].remove(table[i].getHeadKey());
-            }
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int h = hash(key);
+        int i = index(h, numOfLists);
+        Node<K, V> node = table[i].find(key, h);
+        if (node == null || node.value == null)
+            return null;
+
+        int expectedModCount = modCount;
+        V newValue = remappingFunction.apply(key, node.value);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+
+        if (newValue == null) {
+            removeNode(i, node);
+        } else {
+            node.value = newValue;
         }
+        return newValue;
+    }
 
-        table = newTable;
-        numOfLists = newNumOfLists;
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int h = hash(key);
+        int i = index(h, numOfLists);
+        Node<K, V> node = table[i].find(key, h);
+
+        int expectedModCount = modCount;
+        V newValue = remappingFunction.apply(key, node != null ? node.value : null);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+
+        if (newValue == null) {
+            if (node != null)
+                removeNode(i, node);
+        } else if (node != null) {
+            node.value = newValue;
+        } else {
+            addNode(i, new Node<>(key, h, newValue));
+        }
+        return newValue;
     }
 
     @Override
-    public Set keySet() {
-        return null;
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null)
+            throw new NullPointerException();
+
+        int h = hash(key);
+        int i = index(h, numOfLists);
+        Node<K, V> node = table[i].find(key, h);
+        if (node == null) {
+            addNode(i, new Node<>(key, h, value));
+            return value;
+        }
+        if (node.value == null) {
+            node.value = value;
+            return value;
+        }
+
+        int expectedModCount = modCount;
+        V newValue = remappingFunction.apply(node.value, value);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+
+        if (newValue == null) {
+            removeNode(i, node);
+        } else {
+            node.value = newValue;
+        }
+        return newValue;
     }
 
     @Override
-    public Collection values() {
+    public Set<K> keySet() {
+        if (keySet == null)
+            keySet = new KeySet();
+        return keySet;
+    }
 
-        return null;
+    @Override
+    public Collection<V> values() {
+        if (values == null)
+            values = new Values();
+        return values;
     }
 
     @Override
-    public Set<Entry> entrySet() {
-        return null;
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null)
+            entrySet = new EntrySet();
+        return entrySet;
     }
 
     @Override
     public Iterator<Entry<K, V>> iterator() {
-        return null;
+        return new EntryIterator();
+    }
+
+    /** Map entry which is also a node of list or tree bucket. */
+    static class Node<K, V> implements Map.Entry<K, V> {
+        final K key;
+        final int hash;
+        V value;
+
+        Node<K, V> next;
+        Node<K, V> prev;
+
+        Node<K, V> left;
+        Node<K, V> right;
+        int height = 1;
+
+        Node(K key, int hash, V value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldVal = this.value;
+            this.value = value;
+            return oldVal;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /** Iterator over nodes of the table: goes through buckets one by one and follows links inside them. */
+    private abstract class HashIterator<E> implements Iterator<E> {
+        private int bucket = 0;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+        private int expectedModCount = modCount;
+
+        private HashIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (next == null && bucket < numOfLists) {
+                next = table[bucket++].getHead();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        Node<K, V> nextNode() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (next == null)
+                throw new NoSuchElementException();
+
+            lastReturned = next;
+            next = next.next;
+            advance();
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+
+            removeNode(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class KeyIterator extends HashIterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private class ValueIterator extends HashIterator<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private class EntryIterator extends HashIterator<Entry<K, V>> {
+        @Override
+        public Entry<K, V> next() {
+            return nextNode();
+        }
+    }
+
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            Node<K, V> node = findNode(o);
+            if (node == null)
+                return false;
+
+            removeNode(node);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Node<K, V> node = findNode(e.getKey());
+            return node != null && node.equals(e);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Node<K, V> node = findNode(e.getKey());
+            if (node == null || !node.equals(e))
+                return false;
+
+            removeNode(node);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
     }
 }
@@ -1,105 +1,62 @@
 package ru.spbau.mit.java.paradov;
 
-public class MyList {
-    private Node head = null;
+class MyList<K, V> implements Bucket<K, V> {
+    private MyHashMap.Node<K, V> head = null;
 
-    public boolean contains(Object key) {
-        Node cur = head;
-        while (cur != null) {
-            if (key.equals(cur.key))
-                return true;
-            cur = cur.next;
-        }
-        return false;
-    }
+    private int size = 0;
 
-    public boolean containsValue(Object val) {
-        Node cur = head;
-        while (cur != null) {
-            if (val.equals(cur.value))
-                return true;
-            cur = cur.next;
-        }
-        return false;
+    MyList() {
     }
 
-    public Object get(Object key) {
-        Node cur = head;
-        while (cur != null) {
-            if (key.equals(cur.key))
-                return cur.value;
-            cur = cur.next;
-        }
-
-        return null;
+    /** Makes a list out of already linked nodes, keeping their order. */
+    MyList(MyHashMap.Node<K, V> head, int size) {
+        this.head = head;
+        this.size = size;
     }
 
-    public Object put(Object key, Object value) {
-        Node cur = head;
-        while (cur != null) {
-            if (key.equals(cur.key)) {
-                Object oldVal = cur.value;
-                cur.value = value;
-                return oldVal;
-            }
-            cur = cur.next;
-        }
-
-        Node newNode = new Node(key, value, null, head);
-        if (head != null)
-            head.prev = newNode;
-        head = newNode;
+    @Override
+    public MyHashMap.Node<K, V> getHead() {
+        return head;
+    }
 
-        return null;
+    @Override
+    public int size() {
+        return size;
     }
 
-    public Object remove(Object key) {
-        Node cur = head;
+    @Override
+    public MyHashMap.Node<K, V> find(Object key, int hash) {
+        MyHashMap.Node<K, V> cur = head;
         while (cur != null) {
-            if (key.equals(cur.key)) {
-                Object oldVal = cur.value;
-
-                if (cur.prev != null)
-                    cur.prev.next = cur.next;
-
-                if (cur.next != null)
-                    cur.next.prev = cur.prev;
-
-                if (cur == head)
-                    head = head.next;
-
-                return oldVal;
-            }
+            if (cur.hash == hash && key.equals(cur.key))
+                return cur;
             cur = cur.next;
         }
 
         return null;
     }
 
-    public Node getHead() {
-        return head;
-    }
-
-    public Object getHeadKey() {
-        return head.key;
+    @Override
+    public void add(MyHashMap.Node<K, V> node) {
+        node.prev = null;
+        node.next = head;
+        if (head != null)
+            head.prev = node;
+        head = node;
+        size++;
     }
 
-    public Object getHeadValue() {
-        return head.value;
-    }
+    @Override
+    public void unlink(MyHashMap.Node<K, V> node) {
+        if (node.prev != null)
+            node.prev.next = node.next;
 
-    private class Node {
-        private Node next;
-        private Node prev;
+        if (node.next != null)
+            node.next.prev = node.prev;
 
-        private Object key;
-        private Object value;
+        if (node == head)
+            head = node.next;
 
-        public Node(Object key, Object value, Node prev, Node next) {
-            this.next = next;
-            this.prev = prev;
-            this.key = key;
-            this.value = value;
-        }
+        size--;
     }
 }
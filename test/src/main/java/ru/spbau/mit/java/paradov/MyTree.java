@@ -0,0 +1,215 @@
+package ru.spbau.mit.java.paradov;
+
+/**
+ * AVL tree used as a bucket of MyHashMap instead of a too long list.
+ * Keys are ordered by hash, then by class name, then by compareTo() if they are Comparable.
+ * Keys that are still indistinguishable are ordered by identity hash code,
+ * and lookup of such keys checks both subtrees.
+ * Besides the tree, nodes are kept linked in a list, so the map can iterate them in place.
+ */
+class MyTree<K, V> implements Bucket<K, V> {
+    private MyHashMap.Node<K, V> root = null;
+
+    private MyHashMap.Node<K, V> head = null;
+
+    private int size = 0;
+
+    /** Builds a tree out of already linked nodes, keeping their list order. */
+    MyTree(MyHashMap.Node<K, V> head, int size) {
+        this.head = head;
+        this.size = size;
+        for (MyHashMap.Node<K, V> cur = head; cur != null; cur = cur.next) {
+            cur.left = null;
+            cur.right = null;
+            cur.height = 1;
+            root = insert(root, cur);
+        }
+    }
+
+    @Override
+    public MyHashMap.Node<K, V> getHead() {
+        return head;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public MyHashMap.Node<K, V> find(Object key, int hash) {
+        return find(root, key, hash);
+    }
+
+    @Override
+    public void add(MyHashMap.Node<K, V> node) {
+        node.prev = null;
+        node.next = head;
+        if (head != null)
+            head.prev = node;
+        head = node;
+        size++;
+
+        node.left = null;
+        node.right = null;
+        node.height = 1;
+        root = insert(root, node);
+    }
+
+    @Override
+    public void unlink(MyHashMap.Node<K, V> node) {
+        if (node.prev != null)
+            node.prev.next = node.next;
+
+        if (node.next != null)
+            node.next.prev = node.prev;
+
+        if (node == head)
+            head = node.next;
+
+        size--;
+        root = delete(root, node);
+        node.left = null;
+        node.right = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(int hash, Object key, MyHashMap.Node<?, ?> node) {
+        if (hash != node.hash)
+            return hash < node.hash ? -1 : 1;
+
+        Class<?> ca = key.getClass();
+        Class<?> cb = node.key.getClass();
+        if (ca != cb)
+            return ca.getName().compareTo(cb.getName());
+
+        if (key instanceof Comparable)
+            return ((Comparable<Object>) key).compareTo(node.key);
+
+        return 0;
+    }
+
+    private static int order(MyHashMap.Node<?, ?> a, MyHashMap.Node<?, ?> b) {
+        int cmp = compare(a.hash, a.key, b);
+        if (cmp != 0)
+            return cmp;
+
+        return Integer.compare(System.identityHashCode(a.key), System.identityHashCode(b.key));
+    }
+
+    private static <K, V> MyHashMap.Node<K, V> find(MyHashMap.Node<K, V> p, Object key, int hash) {
+        while (p != null) {
+            int cmp = compare(hash, key, p);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else if (key.equals(p.key)) {
+                return p;
+            } else {
+                MyHashMap.Node<K, V> found = find(p.right, key, hash);
+                if (found != null)
+                    return found;
+                p = p.left;
+            }
+        }
+
+        return null;
+    }
+
+    private static <K, V> MyHashMap.Node<K, V> insert(MyHashMap.Node<K, V> p, MyHashMap.Node<K, V> node) {
+        if (p == null)
+            return node;
+
+        if (order(node, p) <= 0) {
+            p.left = insert(p.left, node);
+        } else {
+            p.right = insert(p.right, node);
+        }
+
+        return balance(p);
+    }
+
+    private static <K, V> MyHashMap.Node<K, V> delete(MyHashMap.Node<K, V> p, MyHashMap.Node<K, V> node) {
+        if (p == null)
+            return null;
+
+        if (p == node) {
+            if (p.left == null)
+                return p.right;
+            if (p.right == null)
+                return p.left;
+
+            MyHashMap.Node<K, V> min = p.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            min.right = deleteMin(p.right);
+            min.left = p.left;
+            return balance(min);
+        }
+
+        int cmp = order(node, p);
+        if (cmp < 0) {
+            p.left = delete(p.left, node);
+        } else if (cmp > 0) {
+            p.right = delete(p.right, node);
+        } else {
+            p.left = delete(p.left, node);
+            p.right = delete(p.right, node);
+        }
+
+        return balance(p);
+    }
+
+    private static <K, V> MyHashMap.Node<K, V> deleteMin(MyHashMap.Node<K, V> p) {
+        if (p.left == null)
+            return p.right;
+
+        p.left = deleteMin(p.left);
+        return balance(p);
+    }
+
+    private static int height(MyHashMap.Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void updateHeight(MyHashMap.Node<?, ?> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+
+    private static <K, V> MyHashMap.Node<K, V> rotateRight(MyHashMap.Node<K, V> node) {
+        MyHashMap.Node<K, V> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateHeight(node);
+        updateHeight(left);
+        return left;
+    }
+
+    private static <K, V> MyHashMap.Node<K, V> rotateLeft(MyHashMap.Node<K, V> node) {
+        MyHashMap.Node<K, V> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateHeight(node);
+        updateHeight(right);
+        return right;
+    }
+
+    private static <K, V> MyHashMap.Node<K, V> balance(MyHashMap.Node<K, V> node) {
+        updateHeight(node);
+        int diff = height(node.left) - height(node.right);
+        if (diff > 1) {
+            if (height(node.left.left) < height(node.left.right))
+                node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (diff < -1) {
+            if (height(node.right.right) < height(node.right.left))
+                node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+}
@@ -0,0 +1,305 @@
+package ru.spbau.mit.java.paradov;
+
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/** Class that tests MyHashMap against java.util.HashMap. */
+public class MyHashMapTest {
+    /** Key whose hashCode() is the same for all keys, so they all get into one bucket. */
+    private static final class CollidingKey {
+        private final int id;
+
+        private CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public String toString() {
+            return "key" + id;
+        }
+    }
+
+    /** Tests if random sequence of put, remove, compute and merge gives the same map as HashMap. */
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Random random = new Random(20171005L);
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200000; i++) {
+            Integer key = random.nextInt(5000);
+            Integer value = random.nextInt(100);
+            switch (random.nextInt(8)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 3:
+                    assertEquals(expected.compute(key, (k, v) -> v == null ? value : v % 3 == 0 ? null : v + 1),
+                            map.compute(key, (k, v) -> v == null ? value : v % 3 == 0 ? null : v + 1));
+                    break;
+                case 4:
+                    assertEquals(expected.merge(key, value, (v1, v2) -> v1 + v2 > 150 ? null : v1 + v2),
+                            map.merge(key, value, (v1, v2) -> v1 + v2 > 150 ? null : v1 + v2));
+                    break;
+                case 5:
+                    assertEquals(expected.computeIfAbsent(key, k -> value), map.computeIfAbsent(key, k -> value));
+                    break;
+                case 6:
+                    assertEquals(expected.computeIfPresent(key, (k, v) -> v % 2 == 0 ? null : v * 2),
+                            map.computeIfPresent(key, (k, v) -> v % 2 == 0 ? null : v * 2));
+                    break;
+                default:
+                    assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    /** Tests if Iterator.remove() through each view removes the entry from the map. */
+    @Test
+    public void testIteratorRemoveThroughViews() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i * 10);
+            expected.put(i, i * 10);
+        }
+
+        for (Iterator<Integer> it = map.keySet().iterator(); it.hasNext(); ) {
+            if (it.next() % 3 == 0) {
+                it.remove();
+            }
+        }
+        for (Iterator<Integer> it = map.values().iterator(); it.hasNext(); ) {
+            if (it.next() % 20 == 10) {
+                it.remove();
+            }
+        }
+        for (Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getKey() % 5 == 0) {
+                it.remove();
+            }
+        }
+        expected.keySet().removeIf(key -> key % 3 == 0 || key % 2 == 1 || key % 5 == 0);
+
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+    }
+
+    /** Tests if Iterator.remove() can't be called twice in a row or before next(). */
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveTwice() {
+        MyHashMap<String, String> map = new MyHashMap<>();
+        map.put("a", "b");
+        Iterator<String> it = map.keySet().iterator();
+        it.next();
+        it.remove();
+        it.remove();
+    }
+
+    /** Tests if setValue() of entries from entrySet() and from the map iterator writes through. */
+    @Test
+    public void testEntrySetValueWritesThrough() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            assertEquals(entry.getValue(), entry.setValue(entry.getValue() * 10));
+        }
+        for (Map.Entry<String, Integer> entry : map) {
+            entry.setValue(entry.getValue() + 1);
+        }
+
+        assertEquals(11, (int) map.get("a"));
+        assertEquals(21, (int) map.get("b"));
+        assertTrue(map.values().contains(21));
+        assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>("a", 11)));
+    }
+
+    /** Tests if views are live: changes of map are seen by views and removals through views change map. */
+    @Test
+    public void testViewsAreLive() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        Set<String> keys = map.keySet();
+        Collection<Integer> values = map.values();
+        map.put("a", 1);
+        map.put("b", 2);
+
+        assertEquals(2, keys.size());
+        assertTrue(values.contains(2));
+        assertTrue(keys.remove("a"));
+        assertFalse(map.containsKey("a"));
+        assertTrue(map.entrySet().remove(new AbstractMap.SimpleEntry<>("b", 2)));
+        assertTrue(map.isEmpty());
+        assertTrue(values.isEmpty());
+    }
+
+    /** Tests if iterators of all views fail after the map was changed not through them. */
+    @Test
+    public void testIteratorsFailAfterOutsideChange() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+
+        Iterator<?>[] iterators = {map.keySet().iterator(), map.values().iterator(),
+                                   map.entrySet().iterator(), map.iterator()};
+        for (Iterator<?> it : iterators) {
+            it.next();
+        }
+        map.put(100, 100);
+
+        for (Iterator<?> it : iterators) {
+            try {
+                it.next();
+                fail("Iterator didn't notice change of map.");
+            } catch (ConcurrentModificationException e) {
+                // expected
+            }
+        }
+    }
+
+    /** Tests if forEach() fails when action changes the map. */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testForEachFailsAfterChange() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+
+        map.forEach((key, value) -> map.remove(key));
+    }
+
+    /** Tests if computeIfAbsent() fails when mapping function changes the map. */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testComputeIfAbsentFailsAfterChange() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.computeIfAbsent(1, key -> map.put(2, 2));
+    }
+
+    /**
+     * Tests keys with equal hashCode(): their bucket is turned into a tree when it becomes long
+     * and back into a list when it becomes short, and the map stays equal to HashMap all the time.
+     */
+    @Test
+    public void testCollidingKeysTreeifyAndUntreeify() {
+        MyHashMap<CollidingKey, Integer> map = new MyHashMap<>();
+        HashMap<CollidingKey, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200; i++) {
+            CollidingKey key = new CollidingKey(i);
+            assertEquals(expected.put(key, i), map.put(key, i));
+            assertEquals(expected, map);
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, (int) map.get(new CollidingKey(i)));
+        }
+
+        for (int i = 0; i < 195; i++) {
+            CollidingKey key = new CollidingKey(i * 37 % 200);
+            assertEquals(expected.remove(key), map.remove(key));
+            assertEquals(expected.size(), map.size());
+            assertFalse(map.containsKey(key));
+        }
+        assertEquals(expected, map);
+
+        for (int i = 0; i < 100; i++) {
+            CollidingKey key = new CollidingKey(i);
+            assertEquals(expected.merge(key, 1, Integer::sum), map.merge(key, 1, Integer::sum));
+        }
+        assertEquals(expected, map);
+
+        Iterator<CollidingKey> it = map.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().id % 2 == 0) {
+                it.remove();
+            }
+        }
+        expected.keySet().removeIf(key -> key.id % 2 == 0);
+        assertEquals(expected, map);
+    }
+
+    /** Tests if null values are stored and told apart from missing keys. */
+    @Test
+    public void testNullValues() {
+        MyHashMap<String, String> map = new MyHashMap<>();
+        assertNull(map.put("a", null));
+
+        assertTrue(map.containsKey("a"));
+        assertTrue(map.containsValue(null));
+        assertNull(map.get("a"));
+        assertEquals("default", map.getOrDefault("b", "default"));
+        assertNull(map.getOrDefault("a", "default"));
+        assertEquals(1, map.size());
+
+        assertNull(map.putIfAbsent("a", "value"));
+        assertEquals("value", map.get("a"));
+        map.put("a", null);
+        assertEquals("merged", map.merge("a", "merged", (v1, v2) -> v1 + v2));
+        map.put("a", null);
+        assertEquals("computed", map.computeIfAbsent("a", key -> "computed"));
+        assertNull(map.compute("a", (key, value) -> null));
+        assertFalse(map.containsKey("a"));
+    }
+
+    /** Tests if null keys are rejected, as documented. */
+    @Test(expected = NullPointerException.class)
+    public void testNullKeyIsRejected() {
+        new MyHashMap<String, String>().put(null, "value");
+    }
+
+    /** Tests if merge() rejects null value, as Map requires. */
+    @Test(expected = NullPointerException.class)
+    public void testMergeRejectsNullValue() {
+        new MyHashMap<String, String>().merge("a", null, (v1, v2) -> v1);
+    }
+
+    /** Tests if putAll(), copying constructor and clear() work. */
+    @Test
+    public void testPutAllAndClear() {
+        HashMap<String, Integer> source = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            source.put("key" + i, i);
+        }
+
+        MyHashMap<String, Integer> map = new MyHashMap<>(source);
+        assertEquals(source, map);
+        map.putAll(source);
+        assertEquals(500, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.keySet().iterator().hasNext());
+        assertNull(map.get("key1"));
+    }
+}